@@ -0,0 +1,89 @@
+package com.ex.airplane.bench;
+
+import com.ex.airplane.core.Bullet;
+import com.ex.airplane.core.Enemy;
+import com.ex.airplane.core.EntityPool;
+import com.ex.airplane.core.GameObject;
+import com.ex.airplane.core.Reward;
+import com.ex.airplane.core.Rules;
+import com.ex.airplane.core.Ship;
+import com.ex.airplane.core.World;
+
+import java.util.Random;
+
+/**
+ * 基准测试用的房间：按固定种子生成世界，并能恢复到初始状态（对象池、位置、存活状态、玩家分数），
+ * 使每次测量都从同一个世界开始。直接填充房间所用的 {@link World} 的对象池，不经过网络和 tick 线程。
+ */
+class BenchRoom {
+    private static final int PLAYERS = 4; // 玩家数
+    private static final double DEAD_RATIO = 0.1; // 标记死亡时的对象比例
+
+    final World world = new World(Integer.MAX_VALUE, Integer.MAX_VALUE, 42); // 被测世界，不生成新的敌人和奖励
+    private final int enemyCount, bulletCount, rewardCount; // 各类对象数
+    private final int[] ids, xs, ys, owners; // 初始世界中的所有对象：敌人、子弹、奖励依次排列
+    private final boolean[] dead; // 标记死亡时选中的对象
+
+    /**
+     * @param entities 敌人、子弹、奖励的总数：约 10% 敌人、2% 奖励，其余为子弹，与对战中后期的比例相近
+     */
+    BenchRoom(int entities) {
+        Random random = new Random(42); // 固定种子，每次运行的世界相同
+        for (int i = 0; i < PLAYERS; i++) {
+            world.addPlayer(i + 1, "player" + i, i * 200, 500);
+        }
+
+        enemyCount = Math.max(1, entities / 10);
+        rewardCount = Math.max(1, entities / 50);
+        bulletCount = Math.max(0, entities - enemyCount - rewardCount);
+        int total = enemyCount + bulletCount + rewardCount;
+        ids = new int[total];
+        xs = new int[total];
+        ys = new int[total];
+        owners = new int[total];
+        dead = new boolean[total];
+        for (int i = 0; i < total; i++) {
+            ids[i] = GameObject.nextId();
+            if (i < enemyCount) {
+                xs[i] = random.nextInt(Rules.WORLD_WIDTH - Enemy.WIDTH);
+                ys[i] = random.nextInt(Rules.WORLD_HEIGHT - Enemy.HEIGHT);
+            } else if (i < enemyCount + bulletCount) {
+                xs[i] = random.nextInt(Rules.WORLD_WIDTH);
+                ys[i] = random.nextInt(Rules.WORLD_HEIGHT);
+                owners[i] = 1 + random.nextInt(PLAYERS);
+            } else {
+                xs[i] = random.nextInt(Rules.WORLD_WIDTH - Reward.WIDTH);
+                ys[i] = random.nextInt(Rules.WORLD_HEIGHT - Reward.HEIGHT);
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            dead[i] = random.nextDouble() < DEAD_RATIO;
+        }
+        restore(false);
+    }
+
+    /**
+     * 恢复初始世界。
+     *
+     * @param markDead 是否把约 10% 的对象标记为死亡（测量移除阶段时使用）
+     */
+    void restore(boolean markDead) {
+        fill(world.getEnemies(), 0, enemyCount, Enemy.SPEED, markDead);
+        fill(world.getBullets(), enemyCount, bulletCount, Bullet.SPEED, markDead);
+        fill(world.getRewards(), enemyCount + bulletCount, rewardCount, Reward.SPEED, markDead);
+        for (Ship player : world.getPlayers()) {
+            player.setAlive(true);
+            player.setScore(0);
+        }
+    }
+
+    private void fill(EntityPool pool, int from, int count, int vy, boolean markDead) {
+        pool.clear();
+        for (int i = from; i < from + count; i++) {
+            pool.spawn(ids[i], xs[i], ys[i], 0, vy, owners[i]);
+            if (markDead && dead[i]) {
+                pool.kill(pool.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ex.airplane.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，接受与 JMH 相同的命令行参数。
+ * 默认启用 GC 分析器（报告 gc.alloc.rate.norm，即每次操作分配的字节数），
+ * 并把结果以 JSON 写入 target/jmh-result.json，便于不同版本之间对比；
+ * 命令行指定了 -rf / -rff 时以命令行为准（不需要再传 -prof gc）。
+ * <p>
+ * 例：java -jar target/benchmarks.jar RoomTick -p entities=2000 -rff results/1.0.0.json
+ */
+public class BenchmarkMain {
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json"; // 默认结果文件
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
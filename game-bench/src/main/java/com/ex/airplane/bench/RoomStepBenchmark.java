@@ -0,0 +1,57 @@
+package com.ex.airplane.bench;
+
+import com.ex.airplane.core.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 移除死亡对象和完整一步模拟（移动、碰撞、移除）的基准测试。
+ * 两者都会改变对象列表，每次调用前都恢复初始世界并把约 10% 的对象标记为死亡；
+ * 单次调用在微秒级以上，{@link Level#Invocation} 的计时开销可以忽略。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RoomStepBenchmark {
+    @Param({"500", "2000", "8000"})
+    public int entities; // 敌人、子弹、奖励的总数
+
+    private BenchRoom room; // 被测房间
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        room = new BenchRoom(entities);
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() {
+        room.restore(true);
+    }
+
+    @Benchmark
+    public World removeDeadObjects() {
+        room.world.removeDeadObjects();
+        return room.world;
+    }
+
+    @Benchmark
+    public World step() {
+        room.world.step();
+        return room.world;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ex.airplane.bench;
+
+import com.ex.airplane.core.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 房间 tick 中移动和碰撞阶段的基准测试。
+ * 这两个阶段不改变对象列表，离开场地的对象只被标记为死亡，开销与初始世界相同，因此每轮恢复一次即可。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RoomTickBenchmark {
+    @Param({"500", "2000", "8000"})
+    public int entities; // 敌人、子弹、奖励的总数
+
+    private BenchRoom room; // 被测房间
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        room = new BenchRoom(entities);
+    }
+
+    @Setup(Level.Iteration)
+    public void restore() {
+        room.restore(false);
+    }
+
+    @Benchmark
+    public World move() {
+        room.world.moveObjects();
+        return room.world;
+    }
+
+    @Benchmark
+    public World collide() {
+        room.world.handleCollisions();
+        return room.world;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ex.airplane.bench;
+
+import com.ex.airplane.UI.SnapshotBuffer;
+import com.ex.airplane.protocol.Protocol;
+import com.ex.airplane.protocol.SnapshotDecoder;
+import com.ex.airplane.protocol.SnapshotEncoder;
+import com.ex.airplane.protocol.SnapshotHistory;
+import com.ex.airplane.protocol.WorldState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 快照编解码的基准测试：服务器编码关键帧和增量帧，客户端解码并在两帧之间插值。
+ * <p>
+ * 基准帧与当前帧相隔一个发送间隔（3 tick）：敌人、子弹、奖励匀速移动，约 1% 的对象消失、1% 新生成，
+ * 玩家移动并得分，与对战中的变化量相近。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+    private static final int PLAYERS = 4; // 玩家数
+    private static final int INTERVAL = 3; // 两帧之间的 tick 数
+    private static final byte[] TAGS = {Protocol.TAG_ENEMY, Protocol.TAG_BULLET, Protocol.TAG_REWARD};
+    private static final int[] SPEEDS = {1, -2, 2}; // 各类对象每 tick 的 y 速度
+
+    @Param({"500", "2000", "8000"})
+    public int entities; // 敌人、子弹、奖励的总数
+
+    private final SnapshotEncoder encoder = new SnapshotEncoder(); // 编码器（复用缓冲区，与服务器相同）
+    private final SnapshotDecoder decoder = new SnapshotDecoder(); // 解码器（复用历史槽位，与客户端相同）
+    private WorldState baseline, current; // 基准帧和当前帧
+    private ByteBuffer keyframe, delta; // 编码好的关键帧和增量帧（含帧头）
+    private SnapshotHistory history; // 客户端已收到的基准
+    private SnapshotBuffer buffer; // 客户端插值缓冲区
+    private long renderNanos; // 插值时刻，位于两帧之间
+
+    @Setup(Level.Trial)
+    public void createStates() throws IOException {
+        Random random = new Random(42);
+        baseline = new WorldState().reset(300);
+        current = new WorldState().reset(300 + INTERVAL);
+
+        int nextId = 1;
+        for (int i = 0; i < PLAYERS; i++) {
+            int x = i * 200;
+            baseline.table(Protocol.TAG_PLAYER).add(i + 1, x, 500, 0, 0, 10, true);
+            current.table(Protocol.TAG_PLAYER).add(i + 1, x + 5 * random.nextInt(3), 500, 0, 0, 10 + random.nextInt(2), true);
+        }
+        int[] counts = {Math.max(1, entities / 10), 0, Math.max(1, entities / 50)};
+        counts[1] = Math.max(0, entities - counts[0] - counts[2]);
+        for (int t = 0; t < TAGS.length; t++) {
+            WorldState.Table base = baseline.table(TAGS[t]);
+            WorldState.Table next = current.table(TAGS[t]);
+            for (int i = 0; i < counts[t]; i++) {
+                int id = nextId++, x = random.nextInt(800), y = random.nextInt(600), vy = SPEEDS[t];
+                base.add(id, x, y, 0, vy, 0, true);
+                if (random.nextInt(100) != 0) {
+                    next.add(id, x, y + vy * INTERVAL, 0, vy, 0, true);
+                }
+            }
+        }
+        for (int t = 0; t < TAGS.length; t++) {
+            WorldState.Table next = current.table(TAGS[t]);
+            int spawns = Math.max(1, counts[t] / 100);
+            for (int i = 0; i < spawns; i++) {
+                next.add(nextId++, random.nextInt(800), 0, 0, SPEEDS[t], 0, true);
+            }
+        }
+
+        keyframe = encoder.encode(null, current);
+        delta = encoder.encode(baseline, current);
+
+        history = new SnapshotHistory(64);
+        history.put(baseline);
+
+        // 两帧按 tick 时间到达，插值时刻取两帧中间（插值延迟为 0）
+        buffer = new SnapshotBuffer(32, 0);
+        long tickNanos = Protocol.TICK_MILLIS * 1_000_000L;
+        buffer.add(baseline, baseline.getTick() * tickNanos);
+        buffer.add(current, current.getTick() * tickNanos);
+        renderNanos = (baseline.getTick() * tickNanos + current.getTick() * tickNanos) / 2;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeKeyframe() {
+        return encoder.encode(null, current);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeDelta() {
+        return encoder.encode(baseline, current);
+    }
+
+    @Benchmark
+    public WorldState decodeKeyframe() throws IOException {
+        return decoder.decode(payload(keyframe), history);
+    }
+
+    @Benchmark
+    public WorldState decodeDelta() throws IOException {
+        return decoder.decode(payload(delta), history);
+    }
+
+    @Benchmark
+    public WorldState interpolate() {
+        return buffer.sample(renderNanos);
+    }
+
+    /**
+     * 跳过帧头，得到与客户端 FrameReader 相同的快照内容视图。
+     */
+    private static ByteBuffer payload(ByteBuffer frame) {
+        ByteBuffer payload = frame.duplicate();
+        payload.position(Protocol.FRAME_HEADER_LENGTH);
+        return payload;
+    }
+}
@@ -0,0 +1,463 @@
+package com.ex.airplane;
+
+import com.ex.airplane.Server.Histogram;
+import com.ex.airplane.core.Rules;
+import com.ex.airplane.protocol.FrameReader;
+import com.ex.airplane.protocol.Protocol;
+import com.ex.airplane.protocol.SnapshotDecoder;
+import com.ex.airplane.protocol.SnapshotHistory;
+import com.ex.airplane.protocol.WorldState;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无界面的机器人压测工具：与 {@link Client} 一样用普通套接字连接服务器，但同时模拟大量玩家，
+ * 用于在发布前找出单台服务器能承载的玩家数。
+ * <p>
+ * 每个机器人建立一条真实连接，用 CREATE/JOIN 登录（每个房间的第一个机器人创建房间，其余加入），
+ * 按设定的频率发送随机或脚本中的 KEY_PRESSED/KEY_RELEASED（带输入序号），
+ * 并像正式客户端一样解码、确认每一帧快照。运行期间每 5 秒输出一行进度，结束时输出汇总报告：
+ * 登录耗时、快照到达间隔及抖动、输入到快照回传的端到端延迟、收发字节速率以及被服务器断开的次数。
+ * <pre>
+ * java -cp game.jar com.ex.airplane.BotLoadGenerator [选项]
+ *   --host 地址          服务器地址（默认 localhost）
+ *   --port 端口          服务器端口（默认 8888）
+ *   --bots N             机器人数（默认 100）
+ *   --room-size N        每个房间的机器人数（默认 4）
+ *   --room-prefix 前缀   房间名前缀（默认 load-）
+ *   --rate N             每个机器人每秒发送的输入数（默认 5）
+ *   --script 文件        按脚本发送输入，每行一条“KEY_PRESSED;按键码”或“KEY_RELEASED;按键码”，# 开头为注释；
+ *                        每个机器人从随机位置开始循环发送。不指定时随机移动和开火
+ *   --duration 秒        压测时长（默认 60，从最后一个机器人开始连接算起）
+ *   --ramp 秒            在多长时间内均匀地启动全部机器人（默认 10）
+ *   --user 前缀          用户名前缀，第 i 个机器人的用户名为前缀加 i（从 1 开始，默认 bot）
+ *   --password 密码      所有机器人共用的密码（默认 bot）
+ *   --report 文件        把汇总报告另存到文件
+ * </pre>
+ * 服务器需要有对应的账号，可用 -Dgame.botAccounts=N 启动服务器，自动创建 bot1 到 botN（密码 bot）。
+ */
+public class BotLoadGenerator {
+    private static final int SNAPSHOT_HISTORY = 64; // 与客户端相同的快照历史长度
+    private static final int INPUT_WINDOW = 1024; // 记录发送时间的输入数，超过仍未回传的输入不计延迟
+    private static final long PROGRESS_INTERVAL_SECONDS = 5; // 进度输出间隔
+    private static final int[] MOVE_KEYS = {Rules.KEY_LEFT, Rules.KEY_UP, Rules.KEY_RIGHT, Rules.KEY_DOWN}; // 随机移动使用的按键
+
+    // 选项
+    private String host = "localhost";
+    private int port = 8888;
+    private int botCount = 100;
+    private int roomSize = 4;
+    private String roomPrefix = "load-";
+    private double rate = 5;
+    private List<String> script; // 输入脚本，为 null 时随机输入
+    private int durationSeconds = 60;
+    private int rampSeconds = 10;
+    private String userPrefix = "bot";
+    private String password = "bot";
+    private Path reportFile;
+
+    // 所有机器人共享的统计（不限时间窗口，覆盖整次压测）
+    private final Histogram loginTimes = new Histogram(Long.MAX_VALUE); // 连接到登录成功
+    private final Histogram snapshotIntervals = new Histogram(Long.MAX_VALUE); // 同一连接上相邻两帧快照的到达间隔
+    private final Histogram inputLatencies = new Histogram(Long.MAX_VALUE); // 发送输入到快照回传该输入序号
+    private final LongAdder bytesReceived = new LongAdder(); // 收到的字节数（含帧头）
+    private final LongAdder bytesSent = new LongAdder(); // 发送的字节数
+    private final LongAdder snapshots = new LongAdder(); // 收到的快照帧数
+    private final LongAdder inputsSent = new LongAdder(); // 发送的输入数
+    private final LongAdder resyncs = new LongAdder(); // 找不到基准而请求关键帧的次数
+    private final AtomicInteger loggedIn = new AtomicInteger(); // 当前已登录的机器人数
+    private final AtomicInteger loginFailures = new AtomicInteger(); // 登录被拒绝或失败的次数
+    private final AtomicInteger serverClosed = new AtomicInteger(); // 被服务器关闭连接的次数
+    private final AtomicInteger connectionErrors = new AtomicInteger(); // 连接出错的次数
+    private final AtomicInteger gamesOver = new AtomicInteger(); // 收到 GAMEOVER 的机器人数
+
+    private volatile boolean stopping; // 压测结束，之后的断开不计入统计
+
+    public static void main(String[] args) throws Exception {
+        BotLoadGenerator generator = new BotLoadGenerator();
+        try {
+            generator.parseArgs(args);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BotLoadGenerator [--host H] [--port P] [--bots N] [--room-size N] [--room-prefix P] [--rate N]"
+                    + " [--script FILE] [--duration S] [--ramp S] [--user PREFIX] [--password PW] [--report FILE]");
+            System.exit(2);
+        }
+        generator.run();
+    }
+
+    private void parseArgs(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--host" -> host = value;
+                case "--port" -> port = Integer.parseInt(value);
+                case "--bots" -> botCount = Math.max(1, Integer.parseInt(value));
+                case "--room-size" -> roomSize = Math.max(1, Integer.parseInt(value));
+                case "--room-prefix" -> roomPrefix = value;
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--script" -> script = readScript(Paths.get(value));
+                case "--duration" -> durationSeconds = Math.max(1, Integer.parseInt(value));
+                case "--ramp" -> rampSeconds = Math.max(0, Integer.parseInt(value));
+                case "--user" -> userPrefix = value;
+                case "--password" -> password = value;
+                case "--report" -> reportFile = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+    }
+
+    private static List<String> readScript(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (!line.startsWith("KEY_PRESSED;") && !line.startsWith("KEY_RELEASED;")) {
+                throw new IOException("Invalid script line in " + file + ": " + line);
+            }
+            lines.add(line);
+        }
+        if (lines.isEmpty()) {
+            throw new IOException("Empty script: " + file);
+        }
+        return lines;
+    }
+
+    private void run() throws InterruptedException, IOException {
+        int roomCount = (botCount + roomSize - 1) / roomSize;
+        CountDownLatch[] roomsCreated = new CountDownLatch[roomCount]; // 房主登录完成（无论成败）后其余机器人再加入
+        for (int i = 0; i < roomCount; i++) {
+            roomsCreated[i] = new CountDownLatch(1);
+        }
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    Thread thread = new Thread(runnable, "bot-input");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        System.out.printf("Starting %d bots in %d rooms against %s:%d, %.1f inputs/s each (%s), ramp %ds, duration %ds%n",
+                botCount, roomCount, host, port, rate, script != null ? "scripted" : "random", rampSeconds, durationSeconds);
+        List<Bot> bots = new ArrayList<>(botCount);
+        long rampStart = System.nanoTime();
+        for (int i = 0; i < botCount; i++) {
+            long due = rampStart + TimeUnit.SECONDS.toNanos(rampSeconds) * i / botCount;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            int room = i / roomSize;
+            Bot bot = new Bot(i + 1, roomPrefix + room, i % roomSize == 0, roomsCreated[room], scheduler);
+            bots.add(bot);
+            Thread thread = new Thread(bot, "bot-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long lastBytes = 0, lastSnapshots = 0, lastTime = start;
+        while (System.nanoTime() < end) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.SECONDS.toNanos(PROGRESS_INTERVAL_SECONDS), end - System.nanoTime()));
+            long now = System.nanoTime();
+            long bytes = bytesReceived.sum(), frames = snapshots.sum();
+            double seconds = Math.max((now - lastTime) / 1e9, 1e-9);
+            System.out.printf("  %3ds: %d bots online, %.0f snapshots/s, %.1f KB/s in, disconnects %d%n",
+                    (now - start) / 1_000_000_000L, loggedIn.get(), (frames - lastSnapshots) / seconds,
+                    (bytes - lastBytes) / seconds / 1024, serverClosed.get() + connectionErrors.get());
+            lastBytes = bytes;
+            lastSnapshots = frames;
+            lastTime = now;
+        }
+
+        stopping = true;
+        scheduler.shutdownNow();
+        int online = loggedIn.get();
+        for (Bot bot : bots) {
+            bot.close();
+        }
+
+        String report = report(online, (System.nanoTime() - start) / 1e9);
+        System.out.print(report);
+        if (reportFile != null) {
+            Files.writeString(reportFile, report, StandardCharsets.UTF_8);
+            System.out.println("Report written to " + reportFile);
+        }
+    }
+
+    /**
+     * 生成汇总报告。
+     *
+     * @param online  结束时仍在线的机器人数
+     * @param seconds 压测时长（秒）
+     */
+    private String report(int online, double seconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "Load test report %s%n", LocalDateTime.now().withNano(0)));
+        out.append(String.format(Locale.ROOT, "  target:        %s:%d, %d bots, %d per room, %.1f inputs/s per bot (%s), %.0f s%n",
+                host, port, botCount, roomSize, rate, script != null ? "scripted" : "random", seconds));
+        out.append(String.format(Locale.ROOT, "  bots:          %d logged in, %d online at end, %d login failures%n",
+                loginTimes.getCount(), online, loginFailures.get()));
+        out.append(String.format(Locale.ROOT, "  disconnects:   %d closed by server, %d connection errors, %d games over%n",
+                serverClosed.get(), connectionErrors.get(), gamesOver.get()));
+        out.append(line("login", loginTimes));
+        out.append(line("snapshot gap", snapshotIntervals));
+        Histogram.Snapshot gaps = snapshotIntervals.snapshot();
+        out.append(String.format(Locale.ROOT, "  jitter:        %.2f ms (p99 - p50 of snapshot gaps)%n", (gaps.getP99() - gaps.getP50()) / 1e6));
+        out.append(line("input latency", inputLatencies));
+        out.append(String.format(Locale.ROOT, "  snapshots:     %d (%.0f/s), %d resyncs%n",
+                snapshots.sum(), snapshots.sum() / seconds, resyncs.sum()));
+        out.append(String.format(Locale.ROOT, "  inputs:        %d (%.0f/s)%n", inputsSent.sum(), inputsSent.sum() / seconds));
+        double bytesPerSecond = bytesReceived.sum() / seconds;
+        out.append(String.format(Locale.ROOT, "  traffic in:    %d bytes, %.1f KB/s, %.0f bytes/s per online bot%n",
+                bytesReceived.sum(), bytesPerSecond / 1024, bytesPerSecond / Math.max(1, online)));
+        out.append(String.format(Locale.ROOT, "  traffic out:   %d bytes, %.1f KB/s%n", bytesSent.sum(), bytesSent.sum() / seconds / 1024));
+        return out.toString();
+    }
+
+    private static String line(String name, Histogram histogram) {
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        return String.format(Locale.ROOT, "  %-14s %d samples, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", name + ":",
+                snapshot.getCount(), snapshot.getP50() / 1e6, snapshot.getP99() / 1e6, snapshot.getMax() / 1e6);
+    }
+
+    /**
+     * 一个机器人：连接线程负责登录、读取和确认快照，输入由共享的调度线程按频率发送。
+     */
+    private final class Bot implements Runnable {
+        private final String username; // 用户名
+        private final String room; // 房间名
+        private final boolean creator; // 是否由本机器人创建房间
+        private final CountDownLatch roomCreated; // 房间创建完成
+        private final ScheduledExecutorService scheduler; // 发送输入的调度线程
+
+        private volatile Socket socket; // 套接字
+        private volatile ScheduledFuture<?> inputs; // 周期发送输入的任务
+        private PrintWriter out; // 输出流，连接线程（确认）和调度线程（输入）共用，PrintWriter 自身同步
+        private int myId = -1; // 自己的玩家编号（连接线程）
+        private final SnapshotHistory history = new SnapshotHistory(SNAPSHOT_HISTORY); // 快照基准（连接线程）
+        private final SnapshotDecoder decoder = new SnapshotDecoder(); // 快照解码器（连接线程）
+
+        // 输入序号和发送时间：调度线程写入，连接线程在快照回传序号后读取
+        private final long[] sendNanos = new long[INPUT_WINDOW]; // 按序号取模保存的发送时间
+        private volatile int lastSentSeq; // 最近发送的输入序号
+        private int lastAckedSeq; // 最近已计算延迟的输入序号（连接线程）
+
+        // 随机输入的状态（调度线程）
+        private int heldKey = -1; // 正在按住的方向键
+        private int scriptPosition; // 脚本中的下一行
+
+        Bot(int index, String room, boolean creator, CountDownLatch roomCreated, ScheduledExecutorService scheduler) {
+            this.username = userPrefix + index;
+            this.room = room;
+            this.creator = creator;
+            this.roomCreated = roomCreated;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            boolean online = false;
+            try {
+                if (!creator) {
+                    roomCreated.await(); // 等房主创建房间
+                }
+                long connectStart = System.nanoTime();
+                Socket socket = new Socket(host, port);
+                this.socket = socket;
+                socket.setTcpNoDelay(true);
+                out = new PrintWriter(socket.getOutputStream(), true);
+                FrameReader in = new FrameReader(socket.getInputStream());
+
+                send((creator ? "CREATE;" : "JOIN;") + host + ":" + port + ";" + username + ";" + password + ";" + room);
+                String response = in.readText();
+                if (!"SUCCESS".equals(response)) {
+                    loginFailures.incrementAndGet();
+                    System.err.println(username + ": login to " + room + " failed: " + response);
+                    return;
+                }
+                loginTimes.record(System.nanoTime() - connectStart);
+                if (creator) {
+                    roomCreated.countDown();
+                }
+                loggedIn.incrementAndGet();
+                online = true;
+                startInputs();
+                readLoop(in);
+            } catch (EOFException e) {
+                if (!stopping) {
+                    serverClosed.incrementAndGet();
+                }
+            } catch (IOException e) {
+                if (!stopping) {
+                    if (online) {
+                        connectionErrors.incrementAndGet();
+                    } else {
+                        loginFailures.incrementAndGet();
+                    }
+                    System.err.println(username + ": " + e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                roomCreated.countDown(); // 房主登录失败时也放行，其余机器人会收到房间不存在的错误
+                if (online) {
+                    loggedIn.decrementAndGet();
+                }
+                if (inputs != null) {
+                    inputs.cancel(false);
+                }
+                close();
+            }
+        }
+
+        /**
+         * 读取服务器消息直到连接关闭：解码并确认每一帧快照，记录到达间隔和输入延迟。
+         */
+        private void readLoop(FrameReader in) throws IOException {
+            long lastSnapshotNanos = 0;
+            while (true) {
+                byte type = in.readFrame();
+                long now = System.nanoTime();
+                bytesReceived.add(Protocol.FRAME_HEADER_LENGTH + in.getPayload().remaining());
+                if (type == Protocol.FRAME_TEXT) {
+                    onMessage(in.getText());
+                    continue;
+                }
+                if (type != Protocol.FRAME_SNAPSHOT) {
+                    continue;
+                }
+
+                snapshots.increment();
+                if (lastSnapshotNanos != 0) {
+                    snapshotIntervals.record(now - lastSnapshotNanos);
+                }
+                lastSnapshotNanos = now;
+
+                WorldState state = decoder.decode(in.getPayload(), history);
+                if (state == null) {
+                    resyncs.increment();
+                    send("RESYNC;");
+                    continue;
+                }
+                send("ACK;" + state.getTick());
+                WorldState.Table players = state.table(Protocol.TAG_PLAYER);
+                int me = myId >= 0 ? players.indexOf(myId) : -1;
+                if (me >= 0) {
+                    recordLatencies(players.inputSeq(me), now);
+                }
+            }
+        }
+
+        private void onMessage(String message) {
+            if (message.startsWith("NEW_USER;")) {
+                String[] parts = message.split(";");
+                if (parts.length > 4 && parts[1].equals(username)) {
+                    myId = Integer.parseInt(parts[4]);
+                }
+            } else if (message.startsWith("GAMEOVER")) {
+                gamesOver.incrementAndGet();
+            }
+        }
+
+        /**
+         * 服务器回传的输入序号推进后，为新确认的每个输入记录从发送到收到快照的延迟。
+         */
+        private void recordLatencies(int ackedSeq, long now) {
+            ackedSeq = Math.min(ackedSeq, lastSentSeq); // 先读 volatile 序号，保证看到对应的发送时间
+            if (ackedSeq <= lastAckedSeq) {
+                return;
+            }
+            int first = Math.max(lastAckedSeq + 1, ackedSeq - INPUT_WINDOW + 1); // 更早的发送时间已被覆盖
+            for (int seq = first; seq <= ackedSeq; seq++) {
+                inputLatencies.record(now - sendNanos[seq % INPUT_WINDOW]);
+            }
+            lastAckedSeq = ackedSeq;
+        }
+
+        private void startInputs() {
+            if (rate <= 0) {
+                return;
+            }
+            long periodNanos = (long) (1e9 / rate);
+            if (script != null) {
+                scriptPosition = ThreadLocalRandom.current().nextInt(script.size());
+            }
+            inputs = scheduler.scheduleAtFixedRate(this::sendInput,
+                    ThreadLocalRandom.current().nextLong(periodNanos), periodNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * 发送下一个输入：脚本的下一行，或随机换一个方向、松开方向键、开火。
+         */
+        private void sendInput() {
+            if (script != null) {
+                sendKey(script.get(scriptPosition));
+                scriptPosition = (scriptPosition + 1) % script.size();
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int choice = random.nextInt(10);
+            if (choice < 3) {
+                sendKey("KEY_PRESSED;" + Rules.KEY_SPACE); // 开火
+            } else if (choice < 5 && heldKey >= 0) {
+                sendKey("KEY_RELEASED;" + heldKey);
+                heldKey = -1;
+            } else {
+                if (heldKey >= 0) {
+                    sendKey("KEY_RELEASED;" + heldKey);
+                }
+                heldKey = MOVE_KEYS[random.nextInt(MOVE_KEYS.length)];
+                sendKey("KEY_PRESSED;" + heldKey);
+            }
+        }
+
+        private void sendKey(String input) {
+            int seq = lastSentSeq + 1;
+            sendNanos[seq % INPUT_WINDOW] = System.nanoTime();
+            lastSentSeq = seq; // volatile 写，连接线程读到序号时也能看到发送时间
+            send(input + ";" + seq);
+            inputsSent.increment();
+        }
+
+        private void send(String message) {
+            out.println(message);
+            bytesSent.add(message.length() + 1);
+        }
+
+        void close() {
+            Socket socket = this.socket;
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // 已在关闭，忽略
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.ex.airplane;
 
+import com.ex.airplane.protocol.FrameReader;
+
 import java.io.*;
 import java.net.*;
 import java.util.Scanner;
@@ -9,7 +11,7 @@ public class Client {
     private static final Logger logger = Logger.getLogger(Client.class.getName());
     private Socket socket;
     private PrintWriter out;
-    private BufferedReader in;
+    private FrameReader in;
 
     public static void main(String[] args) {
         Client client = new Client();
@@ -25,7 +27,7 @@ public class Client {
                 System.out.println("Enter command (CREATE/JOIN), username, password, room:");
                 String input = scanner.nextLine();
                 sendMessage(input); // 发送消息到服务器
-                String response = in.readLine(); // 读取服务器响应
+                String response = in.readText(); // 读取服务器响应（跳过快照帧）
                 if (response != null) {
                     handleServerResponse(response); // 处理服务器响应
                 }
@@ -48,7 +50,7 @@ public class Client {
     private void connectToServer(String serverAddress, int port) throws IOException {
         socket = new Socket(serverAddress, port);
         out = new PrintWriter(socket.getOutputStream(), true); // 初始化输出流，并开启自动刷新
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream())); // 初始化输入流
+        in = new FrameReader(socket.getInputStream()); // 初始化输入流
     }
 
     /**
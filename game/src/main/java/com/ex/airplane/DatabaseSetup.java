@@ -1,5 +1,7 @@
 package com.ex.airplane;
 
+import com.ex.airplane.Server.PasswordHasher;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -25,10 +27,13 @@ public class DatabaseSetup {
                 // 创建Statement用于执行SQL语句
                 Statement stmt = conn.createStatement();
 
+                // 使用 WAL 模式，服务器的多个连接可以同时读取
+                stmt.execute("PRAGMA journal_mode=WAL");
+
                 // 创建用户表（如果不存在）
                 String createTableSQL = "CREATE TABLE IF NOT EXISTS users (" +
                         "username TEXT PRIMARY KEY," +
-                        "password TEXT NOT NULL" +
+                        "password TEXT NOT NULL" + // 加盐哈希，见 PasswordHasher
                         ");";
                 stmt.execute(createTableSQL);
                 logger.info("Users table created or already exists.");
@@ -71,11 +76,11 @@ public class DatabaseSetup {
             logger.error("Error checking username '{}': {}", username, e.getMessage());
         }
 
-        // 插入新用户数据
+        // 插入新用户数据，只保存密码的哈希
         String insertQuery = "INSERT INTO users (username, password) VALUES (?, ?)";
         try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
             insertStmt.setString(1, username);
-            insertStmt.setString(2, password);
+            insertStmt.setString(2, PasswordHasher.hash(password));
             insertStmt.executeUpdate();
             // 记录插入成功的信息
             logger.info("User '{}' inserted successfully.", username);
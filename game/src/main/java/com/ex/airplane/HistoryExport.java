@@ -0,0 +1,136 @@
+package com.ex.airplane;
+
+import com.ex.airplane.export.ExportSource;
+import com.ex.airplane.export.ScoreExporter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * 把服务器数据库中的对局历史（matches 和 match_participants，每局每名玩家一行）导出为 XLSX 或 CSV 的命令行工具。
+ * <p>
+ * 数据库游标逐行读取、{@link ScoreExporter} 逐行写出，历史再长也不会整表读入内存。
+ * <pre>
+ * java -cp game.jar com.ex.airplane.HistoryExport [--db game.db] [--since yyyy-MM-dd] [--user 用户名] 输出文件.xlsx|.csv
+ * </pre>
+ * 输出文件是相对路径时放在默认导出目录下（系统属性 game.exportDir，默认为用户主目录下的 GameScores）。
+ */
+public class HistoryExport {
+    private static final String[] COLUMNS = {"对局", "房间", "结束时间", "tick 数", "正常结束", "用户名", "得分", "存活"};
+    private static final int FETCH_SIZE = 1000; // 每次从数据库取的行数
+
+    public static void main(String[] args) {
+        String db = "game.db";
+        long since = 0;
+        String user = null;
+        String output = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--db" -> db = args[++i];
+                    case "--since" -> since = LocalDate.parse(args[++i]).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    case "--user" -> user = args[++i];
+                    default -> output = args[i];
+                }
+            }
+        } catch (RuntimeException e) {
+            output = null;
+        }
+        if (output == null) {
+            System.err.println("Usage: HistoryExport [--db game.db] [--since yyyy-MM-dd] [--user name] <output.xlsx|output.csv>");
+            System.exit(2);
+        }
+
+        Path file = ScoreExporter.defaultDirectory().resolve(Paths.get(output)); // 绝对路径时 resolve 返回它本身
+        String sql = "SELECT m.id, m.room, m.ended_at, m.ticks, m.completed, p.username, p.score, p.survived " +
+                "FROM matches m JOIN match_participants p ON p.match_id = m.id WHERE m.ended_at >= ?" +
+                (user != null ? " AND p.username = ?" : "") + " ORDER BY m.ended_at, m.id, p.player_id";
+        long start = System.nanoTime();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement query = conn.prepareStatement(sql)) {
+            query.setLong(1, since);
+            if (user != null) {
+                query.setString(2, user);
+            }
+            query.setFetchSize(FETCH_SIZE);
+            long rows;
+            try (ResultSet rs = query.executeQuery()) {
+                rows = ScoreExporter.export(new ResultSetSource(rs), file, new ScoreExporter.Progress() {
+                    private long reported; // 上次输出进度时的行数
+
+                    @Override
+                    public void rowsWritten(long rows, long total) {
+                        if (rows - reported >= 100_000) {
+                            reported = rows;
+                            System.err.println(rows + " rows...");
+                        }
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return false;
+                    }
+                });
+            }
+            System.out.printf("Exported %d rows to %s in %d ms%n", rows, file.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | IOException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 把查询结果逐行交给导出服务，行数未知。
+     */
+    private static final class ResultSetSource implements ExportSource {
+        private final ResultSet rs; // 查询结果
+
+        ResultSetSource(ResultSet rs) {
+            this.rs = rs;
+        }
+
+        @Override
+        public String getTitle() {
+            return "对局历史";
+        }
+
+        @Override
+        public String[] getColumns() {
+            return COLUMNS;
+        }
+
+        @Override
+        public long estimateRows() {
+            return -1;
+        }
+
+        @Override
+        public boolean next(Object[] row) throws IOException {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+                row[0] = rs.getLong(1);
+                row[1] = rs.getString(2);
+                row[2] = Instant.ofEpochMilli(rs.getLong(3)).atZone(ZoneId.systemDefault()).toLocalDateTime().toString();
+                row[3] = rs.getLong(4);
+                row[4] = rs.getInt(5) != 0 ? "是" : "否";
+                row[5] = rs.getString(6);
+                row[6] = rs.getInt(7);
+                row[7] = rs.getInt(8) != 0 ? "是" : "否";
+                return true;
+            } catch (SQLException e) {
+                throw new IOException("Cannot read match history: " + e.getMessage(), e);
+            }
+        }
+    }
+}
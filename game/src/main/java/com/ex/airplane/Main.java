@@ -2,6 +2,7 @@ package com.ex.airplane;
 
 import com.ex.airplane.UI.GamePanel;
 import com.ex.airplane.UI.MultiplayerDialog;
+import com.ex.airplane.UI.SpriteCache;
 
 import javax.swing.*;
 
@@ -12,6 +13,7 @@ public class Main extends JFrame{
     private static JFrame frame; // 主界面窗口
 
     public static void main(String[] args) {
+        SpriteCache.preload(); // 启动时一次性加载全部图片
         frame = new JFrame("星际空战");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // 设置窗口关闭时退出程序
         frame.setSize(400, 300); // 设置窗口尺寸
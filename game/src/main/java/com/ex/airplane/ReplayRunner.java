@@ -0,0 +1,149 @@
+package com.ex.airplane;
+
+import com.ex.airplane.core.MatchReplay;
+import com.ex.airplane.core.World;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 离线回放对战记录（{@link com.ex.airplane.core.MatchRecorder} 写出的 .replay 文件）的命令行工具。
+ * <p>
+ * 不连接网络、不等待 tick 间隔，按 CPU 能达到的最快速度逐 tick 重放输入，
+ * 输出每秒 tick 数、相对实时的倍数以及各阶段（输入、生成、移动、碰撞、移除）每 tick 的平均和最大耗时，
+ * 用于把线上高峰期的对局变成可重复的性能测试。结束时校验世界状态，与原对局不一致时以状态码 1 退出。
+ * <pre>
+ * java -cp game.jar com.ex.airplane.ReplayRunner [--repeat N] 文件...
+ * </pre>
+ * --repeat 指定每个文件回放的次数（默认 5），第一次作为预热不计入统计。
+ */
+public class ReplayRunner {
+    private static final String[] PHASES = {"input", "spawn", "move", "collide", "remove"}; // 统计的阶段
+    private static final int INPUT = 0, SPAWN = 1, MOVE = 2, COLLIDE = 3, REMOVE = 4;
+
+    public static void main(String[] args) {
+        int repeat = 5;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("--repeat")) {
+            repeat = Math.max(1, Integer.parseInt(args[1]));
+            first = 2;
+        }
+        if (first >= args.length) {
+            System.err.println("Usage: ReplayRunner [--repeat N] <file.replay>...");
+            System.exit(2);
+        }
+
+        boolean diverged = false;
+        for (int i = first; i < args.length; i++) {
+            Path file = Paths.get(args[i]);
+            try {
+                diverged |= !run(file, repeat);
+            } catch (IOException e) {
+                System.err.println(file + ": " + e.getMessage());
+                diverged = true;
+            }
+        }
+        System.exit(diverged ? 1 : 0);
+    }
+
+    /**
+     * 回放一个文件并输出统计。
+     *
+     * @return 回放结果是否与记录一致（记录不完整时只要能回放完即视为一致）
+     */
+    private static boolean run(Path file, int repeat) throws IOException {
+        MatchReplay replay = MatchReplay.read(file);
+        System.out.printf("%s: room=%s seed=%d ticks=%d inputs=%d%s%n", file, replay.getRoom(), replay.getSeed(),
+                replay.getEndTick(), replay.getInputCount(), replay.isComplete() ? "" : " (incomplete)");
+
+        boolean consistent = true;
+        for (int run = 0; run < repeat; run++) {
+            Stats stats = new Stats();
+            World world = replay(replay, stats);
+            if (replay.isComplete() && world.checksum() != replay.getEndChecksum()) {
+                consistent = false;
+            }
+            if (run > 0 || repeat == 1) {
+                stats.print(run, replay.getTickMillis());
+            }
+        }
+        System.out.println(consistent ? "  checksum OK" : "  checksum MISMATCH: replay diverged from the recorded match");
+        return consistent;
+    }
+
+    /**
+     * 按与服务器相同的顺序执行每个 tick：先应用本 tick 之前到达的输入，再生成、移动、碰撞、移除。
+     */
+    private static World replay(MatchReplay replay, Stats stats) {
+        World world = replay.createWorld();
+        long endTick = replay.getEndTick();
+        long start = System.nanoTime();
+        while (world.getGameTicks() < endTick) {
+            long t0 = System.nanoTime();
+            replay.applyInputs(world, world.getGameTicks());
+            long t1 = System.nanoTime();
+            world.spawnObjects();
+            long t2 = System.nanoTime();
+            if (world.isGameOver()) {
+                stats.record(world.getGameTicks(), t0, t1, t2, t2, t2, t2);
+                break;
+            }
+            world.moveObjects();
+            long t3 = System.nanoTime();
+            world.handleCollisions();
+            long t4 = System.nanoTime();
+            world.removeDeadObjects();
+            long t5 = System.nanoTime();
+            stats.record(world.getGameTicks(), t0, t1, t2, t3, t4, t5);
+        }
+        replay.applyInputs(world, endTick); // 最后一个 tick 之后、房间关闭之前的输入（如离开）
+        stats.elapsedNanos = System.nanoTime() - start;
+        return world;
+    }
+
+    /**
+     * 一次回放的耗时统计。
+     */
+    private static final class Stats {
+        private final long[] totalNanos = new long[PHASES.length]; // 各阶段总耗时
+        private final long[] maxNanos = new long[PHASES.length]; // 各阶段单 tick 最大耗时
+        private long ticks; // 执行的 tick 数
+        private long slowestTick; // 总耗时最大的 tick
+        private long slowestNanos; // 该 tick 的耗时
+        private long elapsedNanos; // 回放总耗时
+
+        void record(long tick, long t0, long t1, long t2, long t3, long t4, long t5) {
+            ticks++;
+            add(INPUT, t1 - t0);
+            add(SPAWN, t2 - t1);
+            add(MOVE, t3 - t2);
+            add(COLLIDE, t4 - t3);
+            add(REMOVE, t5 - t4);
+            if (t5 - t0 > slowestNanos) {
+                slowestNanos = t5 - t0;
+                slowestTick = tick;
+            }
+        }
+
+        private void add(int phase, long nanos) {
+            totalNanos[phase] += nanos;
+            if (nanos > maxNanos[phase]) {
+                maxNanos[phase] = nanos;
+            }
+        }
+
+        void print(int run, int tickMillis) {
+            double seconds = elapsedNanos / 1e9;
+            double ticksPerSecond = ticks / Math.max(seconds, 1e-9);
+            System.out.printf("  run %d: %d ticks in %.1f ms, %.0f ticks/s (%.0fx realtime), slowest tick #%d %.1f us%n",
+                    run, ticks, elapsedNanos / 1e6, ticksPerSecond, ticksPerSecond * tickMillis / 1000.0,
+                    slowestTick, slowestNanos / 1e3);
+            StringBuilder line = new StringBuilder("    avg/max us:");
+            for (int i = 0; i < PHASES.length; i++) {
+                line.append(String.format(" %s %.2f/%.1f", PHASES[i], totalNanos[i] / 1e3 / Math.max(ticks, 1), maxNanos[i] / 1e3));
+            }
+            System.out.println(line);
+        }
+    }
+}
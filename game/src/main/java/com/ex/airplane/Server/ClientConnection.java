@@ -0,0 +1,248 @@
+package com.ex.airplane.Server;
+
+import com.ex.airplane.protocol.SnapshotEncoder;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 一个客户端的非阻塞连接，由某个 {@link NioServer} I/O 线程负责读写。
+ * 入站按行（'\n'）分帧；出站为长度前缀帧（见 {@link com.ex.airplane.protocol.Protocol}），
+ * 投递到有界的 {@link OutboundMailbox}，由 I/O 线程写出，
+ * 任何线程都可以调用 {@link #send(String)} 和 {@link #sendSnapshot(ByteBuffer)}，调用方不会被慢客户端阻塞。
+ */
+public class ClientConnection {
+    private static final Logger logger = Logger.getLogger(ClientConnection.class.getName()); // 日志记录器
+
+    private static final int READ_BUFFER_SIZE = 4096; // 读缓冲区大小
+    private static final int MAX_LINE_LENGTH = 8192; // 单行最大长度，超过则断开连接
+    private static final int MAILBOX_CAPACITY = 256; // 控制消息队列容量，溢出则断开连接
+    private static final long SLOW_CLIENT_TIMEOUT_MILLIS = 5000; // 连续丢弃快照超过这么久则视为慢客户端并断开
+    // 按快照频率换算成连续丢弃的快照数，调整 game.snapshotEveryTicks 时断开前的等待时间不变
+    private static final int SLOW_CLIENT_DROP_LIMIT = (int) Math.max(1,
+            SLOW_CLIENT_TIMEOUT_MILLIS / ((long) Server.TIMER_DELAY * RoomEngine.SNAPSHOT_EVERY_TICKS));
+
+    private final SocketChannel channel; // 套接字通道
+    private final NioServer.IoLoop loop; // 负责本连接的 I/O 线程
+    private final SocketAddress remoteAddress; // 客户端地址
+    private SelectionKey key; // 在 I/O 线程选择器上的注册
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE); // 读缓冲区
+    private byte[] lineBuffer = new byte[256]; // 正在拼接的一行
+    private int lineLength; // 当前行已读取的字节数
+
+    private final OutboundMailbox mailbox = new OutboundMailbox(MAILBOX_CAPACITY); // 出站邮箱
+    private ByteBuffer writing; // 正在写出的数据（仅 I/O 线程访问）
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(); // 是否已通知 I/O 线程写出
+    private final AtomicBoolean closed = new AtomicBoolean(); // 连接是否已关闭
+    private volatile boolean closeAfterFlush; // 写完剩余消息后关闭
+
+    private volatile Object attachment; // 连接上的会话对象
+    private volatile long ackedTick = -1; // 客户端最近确认的快照 tick，-1 表示下一帧需要关键帧
+
+    ClientConnection(SocketChannel channel, NioServer.IoLoop loop) {
+        this.channel = channel;
+        this.loop = loop;
+        this.remoteAddress = channel.socket().getRemoteSocketAddress();
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    public SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public void attach(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    public Object attachment() {
+        return attachment;
+    }
+
+    public boolean isOpen() {
+        return !closed.get();
+    }
+
+    /**
+     * 记录客户端确认收到的快照 tick，之后的快照以它为基准做增量编码。
+     * 只在 I/O 线程调用；确认只会前进，乱序的旧确认被忽略。
+     */
+    public void acknowledge(long tick) {
+        if (tick > ackedTick) {
+            ackedTick = tick;
+        }
+    }
+
+    /**
+     * 客户端丢失了基准状态，下一帧改发关键帧。
+     */
+    public void resync() {
+        ackedTick = -1;
+    }
+
+    public long getAckedTick() {
+        return ackedTick;
+    }
+
+    /**
+     * 以文本帧发送一条控制消息。
+     *
+     * @param message 消息内容
+     */
+    public void send(String message) {
+        send(SnapshotEncoder.encodeText(message));
+    }
+
+    /**
+     * 发送已编码的控制消息，不会丢弃；队列溢出说明客户端长期读不动，直接断开。
+     */
+    public void send(ByteBuffer message) {
+        if (closed.get()) {
+            return;
+        }
+        if (!mailbox.offerMessage(message.duplicate())) {
+            logger.warning("Disconnecting slow client " + remoteAddress + ": outbound queue full");
+            close();
+            return;
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * 发送状态快照，覆盖尚未写出的旧快照；连续丢弃过多说明客户端跟不上，直接断开。
+     */
+    public void sendSnapshot(ByteBuffer frame) {
+        if (closed.get()) {
+            return;
+        }
+        if (mailbox.offerSnapshot(frame.duplicate()) >= SLOW_CLIENT_DROP_LIMIT) {
+            logger.warning("Disconnecting slow client " + remoteAddress + ": " + SLOW_CLIENT_DROP_LIMIT + " snapshots dropped in a row");
+            close();
+            return;
+        }
+        scheduleWrite();
+    }
+
+    /**
+     * 当前出站排队深度。
+     */
+    public int getQueueDepth() {
+        return mailbox.getDepth();
+    }
+
+    /**
+     * 因被新快照覆盖而丢弃的快照数。
+     */
+    public long getDroppedSnapshots() {
+        return mailbox.getDroppedSnapshots();
+    }
+
+    /**
+     * 写完已排队的消息后关闭连接。
+     */
+    public void closeAfterFlush() {
+        closeAfterFlush = true;
+        scheduleWrite();
+    }
+
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            loop.scheduleWrite(this);
+        }
+    }
+
+    /**
+     * 读取套接字中的数据并按行回调（仅在 I/O 线程调用）。
+     */
+    void onReadable(NioServer.Listener listener) throws IOException {
+        int read;
+        while ((read = channel.read(readBuffer)) > 0) {
+            readBuffer.flip();
+            while (readBuffer.hasRemaining()) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    int length = lineLength;
+                    if (length > 0 && lineBuffer[length - 1] == '\r') {
+                        length--;
+                    }
+                    String line = new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+                    lineLength = 0;
+                    listener.onLine(this, line);
+                    if (closed.get()) {
+                        return;
+                    }
+                } else {
+                    if (lineLength == MAX_LINE_LENGTH) {
+                        throw new IOException("Line too long from " + remoteAddress);
+                    }
+                    if (lineLength == lineBuffer.length) {
+                        lineBuffer = Arrays.copyOf(lineBuffer, Math.min(lineBuffer.length * 2, MAX_LINE_LENGTH));
+                    }
+                    lineBuffer[lineLength++] = b;
+                }
+            }
+            readBuffer.clear();
+        }
+        if (read < 0) {
+            close(); // 客户端已关闭连接
+        }
+    }
+
+    /**
+     * 尽可能多地写出排队的消息（仅在 I/O 线程调用）。
+     */
+    void flush() throws IOException {
+        while (true) {
+            while (writing != null || (writing = mailbox.poll()) != null) {
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE); // 套接字缓冲区已满，等可写时继续
+                    return;
+                }
+                writing = null;
+            }
+
+            if (closeAfterFlush) {
+                close();
+                return;
+            }
+
+            key.interestOps(SelectionKey.OP_READ);
+            writeScheduled.set(false);
+            // 清除标记后若又有新消息入队且无人通知，则由本线程继续写
+            if (mailbox.isEmpty() || !writeScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 关闭连接，只有第一次调用生效。
+     */
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        mailbox.clear();
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close(); // 关闭套接字
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error closing socket: " + e.getMessage(), e); // 记录关闭套接字时的异常
+        }
+        loop.connectionClosed(this);
+    }
+}
@@ -0,0 +1,155 @@
+package com.ex.airplane.Server;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 固定大小的 SQLite 连接池。
+ * <p>
+ * 启动时一次性打开全部连接并把数据库切换为 WAL 模式，读操作之间、读与一个写之间不再互相阻塞；
+ * 写冲突时由 busy_timeout 在 SQLite 内部等待，而不是立即报错。
+ * 每个连接缓存自己预编译过的语句，同一条 SQL 只在该连接上编译一次。
+ * <pre>
+ * try (ConnectionPool.Lease db = pool.borrow()) {
+ *     PreparedStatement stmt = db.prepare("SELECT ...");
+ *     ...
+ * }
+ * </pre>
+ * 借出的连接同一时刻只属于一个线程；归还时不关闭缓存的语句，调用方需关闭自己打开的 ResultSet。
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName()); // 日志记录器
+
+    private static final int BUSY_TIMEOUT_MILLIS = 5000; // 写锁冲突时 SQLite 内部等待的时间
+    private static final long BORROW_TIMEOUT_MILLIS = 5000; // 等待空闲连接的时间
+
+    private final BlockingQueue<Lease> idle; // 空闲连接
+    private final List<Lease> all = new ArrayList<>(); // 全部连接
+
+    /**
+     * @param url  JDBC URL
+     * @param size 连接数
+     * @throws SQLException 无法打开连接
+     */
+    public ConnectionPool(String url, int size) throws SQLException {
+        idle = new ArrayBlockingQueue<>(Math.max(1, size));
+        try {
+            for (int i = 0; i < Math.max(1, size); i++) {
+                Connection connection = DriverManager.getConnection(url);
+                try (Statement stmt = connection.createStatement()) {
+                    if (i == 0) {
+                        stmt.execute("PRAGMA journal_mode=WAL"); // 写入数据库文件，对之后的所有连接生效
+                    }
+                    stmt.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MILLIS);
+                    stmt.execute("PRAGMA synchronous=NORMAL"); // WAL 下仍保证一致性，只在检查点同步磁盘
+                }
+                Lease lease = new Lease(connection);
+                all.add(lease);
+                idle.add(lease);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 借出一个连接，使用完后调用 {@link Lease#close()} 归还。
+     *
+     * @throws SQLException 等待超时或被中断
+     */
+    public Lease borrow() throws SQLException {
+        try {
+            Lease lease = idle.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (lease == null) {
+                throw new SQLException("No database connection available within " + BORROW_TIMEOUT_MILLIS + " ms");
+            }
+            lease.borrowed = true;
+            return lease;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * 关闭全部连接（应在不再借出连接后调用）。
+     */
+    @Override
+    public void close() {
+        for (Lease lease : all) {
+            try {
+                lease.connection.close(); // 同时关闭其上的语句
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error closing database connection: " + e.getMessage(), e);
+            }
+        }
+        all.clear();
+        idle.clear();
+    }
+
+    /**
+     * 借出的连接及其缓存的语句。
+     */
+    public final class Lease implements AutoCloseable {
+        private final Connection connection; // 数据库连接
+        private final Map<String, PreparedStatement> statements = new HashMap<>(); // 已编译的语句，按 SQL 缓存
+        private boolean borrowed; // 是否已借出
+
+        private Lease(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * 取得该连接上已缓存的语句，没有时编译并缓存。参数沿用上次的值，调用方应全部重新设置。
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null) {
+                stmt = connection.prepareStatement(sql);
+                statements.put(sql, stmt);
+            }
+            return stmt;
+        }
+
+        /**
+         * 归还连接。未提交的事务会被回滚，避免把半个事务留给下一个使用者。
+         */
+        @Override
+        public void close() {
+            if (!borrowed) {
+                return;
+            }
+            borrowed = false;
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error resetting database connection: " + e.getMessage(), e);
+            }
+            idle.offer(this);
+        }
+    }
+}
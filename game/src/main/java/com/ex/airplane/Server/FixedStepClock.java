@@ -0,0 +1,67 @@
+package com.ex.airplane.Server;
+
+/**
+ * 固定步长时钟：累加实际流逝的时间，按固定步长折算出本轮应执行的 tick 数。
+ * 落后时最多追赶 maxCatchUpSteps 步，超出部分直接丢弃，避免越追越慢。
+ * 只应由一个 tick 线程推进。
+ */
+public class FixedStepClock {
+    private final long stepNanos; // 步长（纳秒）
+    private final int maxCatchUpSteps; // 单轮最多执行的步数
+
+    private long previous; // 上一次推进的时间点
+    private long accumulator; // 尚未消耗的时间（纳秒）
+
+    // 以下计数只由 tick 线程写入，其它线程可随时读取
+    private volatile long catchUpSteps; // 因落后而额外执行的步数
+    private volatile long droppedSteps; // 因超出追赶上限而丢弃的步数
+
+    public FixedStepClock(long stepNanos, int maxCatchUpSteps) {
+        this.stepNanos = stepNanos;
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+    }
+
+    /**
+     * 从指定时间点开始计时。
+     */
+    public void start(long now) {
+        previous = now;
+        accumulator = 0;
+    }
+
+    /**
+     * 推进时钟，返回本轮需要执行的步数（0 表示还没到下一步）。
+     */
+    public int advance(long now) {
+        accumulator += now - previous;
+        previous = now;
+
+        long due = accumulator / stepNanos;
+        if (due > maxCatchUpSteps) {
+            droppedSteps += due - maxCatchUpSteps;
+            accumulator -= (due - maxCatchUpSteps) * stepNanos; // 丢弃追不上的时间
+            due = maxCatchUpSteps;
+        }
+        if (due > 1) {
+            catchUpSteps += due - 1;
+        }
+
+        accumulator -= due * stepNanos;
+        return (int) due;
+    }
+
+    /**
+     * 距离下一步还有多少纳秒。
+     */
+    public long nanosUntilNextStep(long now) {
+        return stepNanos - accumulator - (now - previous);
+    }
+
+    public long getCatchUpSteps() {
+        return catchUpSteps;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
@@ -0,0 +1,183 @@
+package com.ex.airplane.Server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 耗时分布（纳秒），用于计算近期的 p50、p99 和最大值。
+ * <p>
+ * 桶按 2 的幂分段，每段再等分为 16 个子桶，相对误差不超过 1/16，固定 1024 个桶，记录时只做一次原子自增，不分配对象。
+ * 分位数只统计最近一到两个窗口（默认每个窗口 60 秒）内的记录，反映当前状态而不是启动以来的平均；
+ * 总次数和总耗时则从启动起累计。窗口在记录或读取时惰性切换，切换瞬间并发的少量记录可能落入旧窗口，对监控无影响。
+ * <p>
+ * 可被任意多个线程同时记录和读取。
+ */
+public class Histogram {
+    private static final int SUB_BITS = 4; // 每段的子桶数为 2^SUB_BITS
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS; // 覆盖整个 long 范围
+    private static final long DEFAULT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60); // 默认窗口长度
+
+    private final long windowNanos; // 窗口长度
+    private final AtomicReference<Window> current; // 当前窗口
+    private volatile Window previous; // 上一个窗口
+    private final LongAdder count = new LongAdder(); // 启动以来的记录数
+    private final LongAdder sum = new LongAdder(); // 启动以来的总耗时
+
+    /**
+     * 一个时间窗口内的计数。
+     */
+    private static final class Window {
+        final long start; // 窗口开始时间
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // 各桶的记录数
+        final AtomicLong max = new AtomicLong(); // 窗口内的最大值
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * 近期分布的快照。
+     */
+    public static final class Snapshot {
+        private final long count, p50, p99, max; // 近期的记录数、中位数、99 分位数、最大值（纳秒）
+
+        Snapshot(long count, long p50, long p99, long max) {
+            this.count = count;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+
+    public Histogram() {
+        this(DEFAULT_WINDOW_NANOS);
+    }
+
+    public Histogram(long windowNanos) {
+        this.windowNanos = windowNanos;
+        Window window = new Window(System.nanoTime());
+        this.current = new AtomicReference<>(window);
+        this.previous = new Window(window.start - windowNanos);
+    }
+
+    /**
+     * 记录一次耗时。
+     *
+     * @param nanos 耗时（纳秒），负数按 0 处理
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        Window window = window(System.nanoTime());
+        window.counts.incrementAndGet(bucket(value));
+        long max;
+        while (value > (max = window.max.get()) && !window.max.compareAndSet(max, value)) {
+            // 其它线程同时更新了最大值，重试
+        }
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * 最近一到两个窗口内的分布。
+     */
+    public Snapshot snapshot() {
+        Window window = window(System.nanoTime());
+        Window old = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = window.counts.get(i) + old.counts.get(i);
+            total += counts[i];
+        }
+        long max = Math.max(window.max.get(), old.max.get());
+        if (total == 0) {
+            return new Snapshot(0, 0, 0, 0);
+        }
+        return new Snapshot(total, Math.min(percentile(counts, total, 0.50), max), Math.min(percentile(counts, total, 0.99), max), max);
+    }
+
+    /**
+     * 启动以来的记录数。
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 启动以来的总耗时（纳秒）。
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    private Window window(long now) {
+        Window window = current.get();
+        if (now - window.start >= windowNanos) {
+            Window next = new Window(now);
+            if (current.compareAndSet(window, next)) {
+                previous = window;
+                return next;
+            }
+            return current.get();
+        }
+        return window;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * 值所在的桶：小于 16 的值各占一个桶，其余按最高位分段、取接下来的 4 位为子桶。
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BITS
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶内的最大值。
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
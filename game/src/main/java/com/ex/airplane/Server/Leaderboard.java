@@ -0,0 +1,318 @@
+package com.ex.airplane.Server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 按最高分排名的内存排行榜，保存全部玩家（不只前 K 名），任何玩家的名次都能直接查出。
+ * <p>
+ * 底层是带跨度的跳表（与 Redis 有序集合相同的做法）：按分数降序、同分按用户名升序排列，
+ * 每个前向指针记录它跨过的节点数，因此插入、删除、按用户查名次和按名次定位都是 O(log n)，
+ * 取一页只需再顺序走 limit 个节点。另有用户名到节点的散列表，更新时直接找到旧记录。
+ * 百万级玩家时单次查询只需几十次指针跳转，远低于一毫秒。
+ * <p>
+ * 线程安全：读（查询）之间不互斥，写（更新、清空）独占。
+ */
+public class Leaderboard {
+    private static final int MAX_LEVEL = 32; // 跳表最大层数，足够容纳 4^32 个节点
+    private static final int BRANCHING = 4; // 每升一层的概率为 1/4
+
+    private final Node head = new Node(null, Integer.MAX_VALUE, MAX_LEVEL); // 哨兵节点，排在所有节点之前
+    private final Map<String, Node> nodes = new HashMap<>(); // 用户名到节点
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // 读写锁
+    private int level = 1; // 当前层数
+
+    /**
+     * 一名玩家的排名记录。
+     */
+    public static final class Entry {
+        private final int rank; // 名次，从 1 开始
+        private final String username; // 用户名
+        private final int score; // 分数
+
+        Entry(int rank, String username, int score) {
+            this.rank = rank;
+            this.username = username;
+            this.score = score;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * 跳表节点。
+     */
+    private static final class Node {
+        final String username; // 用户名，哨兵为 null
+        final int score; // 分数
+        final Node[] next; // 各层的后继
+        final int[] span; // 各层后继指针跨过的节点数（含后继本身）
+
+        Node(String username, int score, int height) {
+            this.username = username;
+            this.score = score;
+            this.next = new Node[height];
+            this.span = new int[height];
+        }
+    }
+
+    /**
+     * 提交一个分数，只有高于该玩家当前分数（或玩家尚未上榜）时才更新。
+     *
+     * @return 排名是否改变
+     */
+    public boolean offer(String username, int score) {
+        lock.writeLock().lock();
+        try {
+            Node old = nodes.get(username);
+            if (old != null) {
+                if (old.score >= score) {
+                    return false;
+                }
+                delete(old);
+            }
+            nodes.put(username, insert(username, score));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 玩家的名次和分数。
+     *
+     * @return 不在榜上时返回 null
+     */
+    public Entry find(String username) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(username);
+            return node != null ? new Entry(rank(node), username, node.score) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 取一页排名。
+     *
+     * @param offset 跳过的名次数（从 0 开始）
+     * @param limit  最多返回的条数
+     */
+    public List<Entry> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+            if (offset < 0 || limit <= 0 || offset >= nodes.size()) {
+                return entries;
+            }
+            int rank = offset + 1;
+            Node node = nodeAt(rank);
+            while (node != null && entries.size() < limit) {
+                entries.add(new Entry(rank++, node.username, node.score));
+                node = node.next[0];
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 用按排名顺序（分数降序、同分用户名升序）排列的记录替换整个榜单，逐个接在末尾，O(n)。
+     * 启动时从数据库加载用；顺序不符或重复的记录改用 {@link #offer(String, int)} 插入。
+     */
+    public void load(List<String> usernames, int[] scores) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            Node[] tails = new Node[MAX_LEVEL]; // 各层当前的最后一个节点
+            int[] tailRanks = new int[MAX_LEVEL]; // 这些节点的名次
+            for (int i = 0; i < MAX_LEVEL; i++) {
+                tails[i] = head;
+            }
+            List<Integer> unordered = new ArrayList<>();
+            Node last = null;
+            for (int k = 0; k < usernames.size(); k++) {
+                String username = usernames.get(k);
+                if ((last != null && !before(last, username, scores[k])) || nodes.containsKey(username)) {
+                    unordered.add(k);
+                    continue;
+                }
+                int rank = nodes.size() + 1;
+                Node node = new Node(username, scores[k], randomLevel());
+                for (int i = 0; i < node.next.length; i++) {
+                    tails[i].next[i] = node;
+                    tails[i].span[i] = rank - tailRanks[i];
+                    tails[i] = node;
+                    tailRanks[i] = rank;
+                }
+                level = Math.max(level, node.next.length);
+                nodes.put(username, node);
+                last = node;
+            }
+            for (int i = 0; i < level; i++) {
+                tails[i].span[i] = nodes.size() - tailRanks[i]; // 末尾指针跨过其后的全部节点（为 0）
+            }
+            for (int k : unordered) {
+                Node old = nodes.get(usernames.get(k));
+                if (old == null || old.score < scores[k]) {
+                    if (old != null) {
+                        delete(old);
+                    }
+                    nodes.put(usernames.get(k), insert(usernames.get(k), scores[k]));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            for (int i = 0; i < MAX_LEVEL; i++) {
+                head.next[i] = null;
+                head.span[i] = 0;
+            }
+            level = 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 排序规则：分数高的在前，同分按用户名升序。
+     */
+    private static boolean before(Node node, String username, int score) {
+        return node.score > score || (node.score == score && node.username.compareTo(username) < 0);
+    }
+
+    private Node insert(String username, int score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL]; // 各层 update 节点的名次
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], username, score)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int height = randomLevel();
+        if (height > level) {
+            for (int i = level; i < height; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = nodes.size(); // 新层的哨兵指针跨过全部节点
+            }
+            level = height;
+        }
+
+        Node node = new Node(username, score, height);
+        for (int i = 0; i < height; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = height; i < level; i++) {
+            update[i].span[i]++; // 更高层的指针多跨过一个节点
+        }
+        return node;
+    }
+
+    private void delete(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i] != node && before(x.next[i], node.username, node.score)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        nodes.remove(node.username);
+    }
+
+    /**
+     * 节点的名次：从最高层向下查找，累加跨度。
+     */
+    private int rank(Node node) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == node || before(x.next[i], node.username, node.score))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * 名次对应的节点（名次从 1 开始）。
+     */
+    private Node nodeAt(int rank) {
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private static int randomLevel() {
+        int height = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (height < MAX_LEVEL && random.nextInt(BRANCHING) == 0) {
+            height++;
+        }
+        return height;
+    }
+}
@@ -0,0 +1,185 @@
+package com.ex.airplane.Server;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * 总榜、日榜和周榜（按每名玩家的单局最高分排名）。
+ * <p>
+ * 启动时从数据库各读一次，之后由 {@link MatchStore} 的写线程在每批结果提交后增量更新，
+ * 查询（LEADERBOARD、RANK 命令）只读内存中的 {@link Leaderboard}，不访问数据库。
+ * 日榜和周榜按服务器所在时区划分（周一为一周的第一天），在下一次访问时发现周期已过就清空重来。
+ */
+public class Leaderboards implements MatchStore.Listener {
+    private static final Logger logger = Logger.getLogger(Leaderboards.class.getName()); // 日志记录器
+
+    private static final String SELECT_ALL =
+            "SELECT username, best_score FROM player_scores ORDER BY best_score DESC, username";
+    private static final String SELECT_SINCE =
+            "SELECT p.username, MAX(p.score) AS best FROM match_participants p JOIN matches m ON m.id = p.match_id " +
+            "WHERE m.ended_at >= ? GROUP BY p.username ORDER BY best DESC, p.username";
+
+    /**
+     * 排行榜的统计周期。
+     */
+    public enum Period {
+        ALL, // 总榜
+        DAY, // 当天
+        WEEK; // 本周
+
+        /**
+         * 包含 now 的周期的开始时间（毫秒时间戳），总榜为 0。
+         */
+        long startOf(long now, ZoneId zone) {
+            LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+            return switch (this) {
+                case ALL -> 0;
+                case DAY -> date.atStartOfDay(zone).toInstant().toEpochMilli();
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(zone).toInstant().toEpochMilli();
+            };
+        }
+
+        /**
+         * 下一个周期的开始时间，总榜永不结束。
+         */
+        long endOf(long start, ZoneId zone) {
+            LocalDate date = Instant.ofEpochMilli(start).atZone(zone).toLocalDate();
+            return switch (this) {
+                case ALL -> Long.MAX_VALUE;
+                case DAY -> date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+                case WEEK -> date.plusWeeks(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            };
+        }
+
+        /**
+         * 按名称（不区分大小写）查找周期。
+         *
+         * @return 名称无效时返回 null
+         */
+        public static Period parse(String name) {
+            for (Period period : values()) {
+                if (period.name().equalsIgnoreCase(name)) {
+                    return period;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 一个周期的榜单。
+     */
+    private static final class Board {
+        final Leaderboard leaderboard = new Leaderboard(); // 榜单
+        volatile long start; // 当前周期的开始时间
+        volatile long end; // 当前周期的结束时间
+    }
+
+    private final ZoneId zone = ZoneId.systemDefault(); // 划分日、周所用的时区
+    private final Map<Period, Board> boards = new EnumMap<>(Period.class); // 各周期的榜单
+
+    /**
+     * 创建排名所需的索引并从数据库加载各榜单。
+     *
+     * @throws SQLException 数据库操作失败
+     */
+    public Leaderboards(ConnectionPool pool) throws SQLException {
+        long now = System.currentTimeMillis();
+        for (Period period : Period.values()) {
+            Board board = new Board();
+            board.start = period.startOf(now, zone);
+            board.end = period.endOf(board.start, zone);
+            boards.put(period, board);
+        }
+        load(pool);
+    }
+
+    private void load(ConnectionPool pool) throws SQLException {
+        long start = System.nanoTime();
+        try (ConnectionPool.Lease db = pool.borrow()) {
+            try (Statement stmt = db.getConnection().createStatement()) {
+                // 按排名顺序读取总榜时直接走索引，不用排序
+                stmt.execute("CREATE INDEX IF NOT EXISTS player_scores_rank ON player_scores(best_score DESC, username)");
+            }
+            for (Map.Entry<Period, Board> entry : boards.entrySet()) {
+                Board board = entry.getValue();
+                PreparedStatement query = db.prepare(entry.getKey() == Period.ALL ? SELECT_ALL : SELECT_SINCE);
+                if (entry.getKey() != Period.ALL) {
+                    query.setLong(1, board.start);
+                }
+                List<String> usernames = new ArrayList<>();
+                int[] scores = new int[64];
+                try (ResultSet rs = query.executeQuery()) {
+                    while (rs.next()) {
+                        if (usernames.size() == scores.length) {
+                            scores = Arrays.copyOf(scores, scores.length * 2);
+                        }
+                        scores[usernames.size()] = rs.getInt(2);
+                        usernames.add(rs.getString(1));
+                    }
+                }
+                board.leaderboard.load(usernames, scores);
+            }
+        }
+        logger.info("Loaded leaderboards (" + board(Period.ALL).size() + " players) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * 某个周期的当前榜单；周期已过时先清空。
+     */
+    public Leaderboard board(Period period) {
+        Board board = boards.get(period);
+        rollover(period, board, System.currentTimeMillis());
+        return board.leaderboard;
+    }
+
+    private void rollover(Period period, Board board, long now) {
+        if (now < board.end) {
+            return;
+        }
+        synchronized (board) {
+            if (now >= board.end) {
+                board.leaderboard.clear();
+                board.start = period.startOf(now, zone);
+                board.end = period.endOf(board.start, zone);
+            }
+        }
+    }
+
+    /**
+     * 一批对局结果已写入数据库（在写线程上调用），把各玩家的成绩计入其结束时间所在周期的榜单。
+     * 换周期、检查开始时间和更新在同一把锁内完成，I/O 线程查询时触发的换周期不会插在中间，
+     * 上一个周期的成绩不会落到刚清空的榜单上。
+     */
+    @Override
+    public void matchesWritten(List<MatchResult> results) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Period, Board> entry : boards.entrySet()) {
+            Board board = entry.getValue();
+            synchronized (board) {
+                rollover(entry.getKey(), board, now);
+                for (MatchResult result : results) {
+                    if (result.getEndedAt() < board.start) {
+                        continue; // 属于上一个周期
+                    }
+                    for (MatchResult.Participant participant : result.getParticipants()) {
+                        board.leaderboard.offer(participant.getUsername(), participant.getScore());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ex.airplane.Server;
+
+import java.util.List;
+
+/**
+ * 一局对战的结果，在房间引擎锁内生成，之后不再修改，交给 {@link MatchStore} 异步写入数据库。
+ */
+public final class MatchResult {
+    private final String room; // 房间名
+    private final long seed; // 本局的随机数种子，可与对战记录文件对应
+    private final long startedAt; // 开始时间（毫秒时间戳）
+    private final long endedAt; // 结束时间（毫秒时间戳）
+    private final long ticks; // 本局执行的 tick 数
+    private final boolean completed; // 是否正常结束（所有玩家阵亡）；为 false 时是房间中途关闭
+    private final List<Participant> participants; // 参与的玩家，包括中途离开的
+
+    /**
+     * 一名玩家在本局的成绩。
+     */
+    public static final class Participant {
+        private final int playerId; // 房间内的玩家编号
+        private final String username; // 用户名
+        private final int score; // 得分
+        private final boolean survived; // 结束时是否存活（中途离开为 false）
+
+        public Participant(int playerId, String username, int score, boolean survived) {
+            this.playerId = playerId;
+            this.username = username;
+            this.score = score;
+            this.survived = survived;
+        }
+
+        public int getPlayerId() {
+            return playerId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public boolean isSurvived() {
+            return survived;
+        }
+    }
+
+    public MatchResult(String room, long seed, long startedAt, long endedAt, long ticks, boolean completed, List<Participant> participants) {
+        this.room = room;
+        this.seed = seed;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.ticks = ticks;
+        this.completed = completed;
+        this.participants = List.copyOf(participants);
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getEndedAt() {
+        return endedAt;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public List<Participant> getParticipants() {
+        return participants;
+    }
+}
@@ -0,0 +1,279 @@
+package com.ex.airplane.Server;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 对局结果的异步写入（write-behind）。
+ * <p>
+ * 房间结束时 {@link #submit(MatchResult)} 只把结果放入有界队列，从不阻塞、不访问数据库；
+ * 单独的写线程把结果攒成批，凑满 {@link #BATCH_SIZE} 条或第一条结果已等待 {@link #FLUSH_INTERVAL_MILLIS} 毫秒时，
+ * 在一个事务中写入 matches、match_participants 和 player_scores 三张表，
+ * 因此即使数百个房间同时结束，tick 线程也只多做几次入队操作。队列满时丢弃新结果并记录日志。
+ * 每批提交成功后在写线程上通知 {@link Listener}（如排行榜），使内存中的汇总与数据库保持一致。
+ * {@link #close()} 停止接收新结果并写完队列中剩余的结果。
+ * <p>
+ * 表结构：
+ * <pre>
+ * matches(id, room, seed, started_at, ended_at, ticks, completed)         每局一行，时间为毫秒时间戳
+ * match_participants(match_id, player_id, username, score, survived)      每局每名玩家一行
+ * player_scores(username, matches, total_score, best_score, last_played)  每名玩家的累计成绩
+ * </pre>
+ */
+public class MatchStore implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(MatchStore.class.getName()); // 日志记录器
+
+    static final int BATCH_SIZE = 128; // 每个事务最多写入的对局数
+    static final long FLUSH_INTERVAL_MILLIS = 1000; // 结果在队列中最多等待的时间
+    private static final int QUEUE_CAPACITY = 10_000; // 排队等待写入的对局数上限
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000; // 关闭时等待写完的时间
+
+    private static final String INSERT_MATCH =
+            "INSERT INTO matches(id, room, seed, started_at, ended_at, ticks, completed) VALUES(?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PARTICIPANT =
+            "INSERT INTO match_participants(match_id, player_id, username, score, survived) VALUES(?, ?, ?, ?, ?)";
+    private static final String UPSERT_SCORE =
+            "INSERT INTO player_scores(username, matches, total_score, best_score, last_played) VALUES(?, 1, ?, ?, ?) " +
+            "ON CONFLICT(username) DO UPDATE SET matches = matches + 1, total_score = total_score + excluded.total_score, " +
+            "best_score = MAX(best_score, excluded.best_score), last_played = MAX(last_played, excluded.last_played)";
+
+    private static final MatchResult SHUTDOWN = new MatchResult("", 0, 0, 0, 0, false, List.of()); // 通知写线程退出
+
+    private final ConnectionPool pool; // 数据库连接池
+    private final BlockingQueue<MatchResult> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY); // 待写入的结果
+    private final Thread writer; // 写线程
+    private final AtomicLong nextMatchId = new AtomicLong(); // 下一局的编号（只有写线程写 matches 表，由本类分配）
+    private volatile boolean closed; // 是否已关闭
+    private volatile Listener listener; // 写入成功后的通知对象
+
+    private final AtomicLong written = new AtomicLong(); // 已写入的对局数
+    private final AtomicLong dropped = new AtomicLong(); // 因队列满、已关闭或写入失败而丢弃的对局数
+    private final Histogram batchTimes = new Histogram(); // 每批写入的耗时
+
+    /**
+     * 对局结果写入成功的通知。
+     */
+    public interface Listener {
+        /**
+         * 一批结果已提交到数据库，在写线程上调用，不应阻塞；列表只在调用期间有效。
+         */
+        void matchesWritten(List<MatchResult> results);
+    }
+
+    /**
+     * 创建表（如果尚不存在）并启动写线程。
+     *
+     * @throws SQLException 建表失败
+     */
+    public MatchStore(ConnectionPool pool) throws SQLException {
+        this.pool = pool;
+        createTables();
+        writer = new Thread(this::writeLoop, "match-writer");
+        writer.setDaemon(true); // 关闭时由 close() 负责写完
+        writer.start();
+    }
+
+    private void createTables() throws SQLException {
+        try (ConnectionPool.Lease db = pool.borrow(); Statement stmt = db.getConnection().createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS matches (" +
+                    "id INTEGER PRIMARY KEY," +
+                    "room TEXT NOT NULL," +
+                    "seed INTEGER NOT NULL," +
+                    "started_at INTEGER NOT NULL," +
+                    "ended_at INTEGER NOT NULL," +
+                    "ticks INTEGER NOT NULL," +
+                    "completed INTEGER NOT NULL" +
+                    ");");
+            stmt.execute("CREATE TABLE IF NOT EXISTS match_participants (" +
+                    "match_id INTEGER NOT NULL REFERENCES matches(id)," +
+                    "player_id INTEGER NOT NULL," +
+                    "username TEXT NOT NULL," +
+                    "score INTEGER NOT NULL," +
+                    "survived INTEGER NOT NULL," +
+                    "PRIMARY KEY (match_id, player_id)" +
+                    ");");
+            stmt.execute("CREATE INDEX IF NOT EXISTS match_participants_username ON match_participants(username)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS matches_ended_at ON matches(ended_at)");
+            stmt.execute("CREATE TABLE IF NOT EXISTS player_scores (" +
+                    "username TEXT PRIMARY KEY," +
+                    "matches INTEGER NOT NULL," +
+                    "total_score INTEGER NOT NULL," +
+                    "best_score INTEGER NOT NULL," +
+                    "last_played INTEGER NOT NULL" +
+                    ");");
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM matches")) {
+                nextMatchId.set(rs.next() ? rs.getLong(1) + 1 : 1);
+            }
+        }
+    }
+
+    /**
+     * 提交一局结果，立即返回（可在 tick 线程和引擎锁内调用）。
+     *
+     * @return 是否已入队；队列满或已关闭时丢弃并返回 false
+     */
+    public boolean submit(MatchResult result) {
+        if (!closed && queue.offer(result)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        logger.warning("Dropped result of match in room " + result.getRoom() + (closed ? ": store closed" : ": write queue full")
+                + " (" + count + " dropped so far)");
+        return false;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 每批写入（一个事务）的耗时。
+     */
+    public Histogram getBatchTimes() {
+        return batchTimes;
+    }
+
+    private void writeLoop() {
+        List<MatchResult> batch = new ArrayList<>(BATCH_SIZE);
+        boolean running = true;
+        while (running) {
+            try {
+                MatchResult first = queue.take();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS);
+                MatchResult next = first;
+                while (true) {
+                    if (next == SHUTDOWN) {
+                        running = false;
+                        queue.drainTo(batch); // close() 之后不会再有新结果
+                        batch.remove(SHUTDOWN);
+                        break;
+                    }
+                    batch.add(next);
+                    if (batch.size() >= BATCH_SIZE) {
+                        break;
+                    }
+                    long wait = deadline - System.nanoTime();
+                    next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break; // 到时间了
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false; // 不应发生：关闭通过 SHUTDOWN 通知；写完已取出的结果后退出
+            }
+
+            for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+                write(batch.subList(from, Math.min(batch.size(), from + BATCH_SIZE)));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 在一个事务中写入一批结果，失败时整批回滚并丢弃。
+     */
+    private void write(List<MatchResult> batch) {
+        long start = System.nanoTime();
+        try (ConnectionPool.Lease db = pool.borrow()) {
+            db.getConnection().setAutoCommit(false);
+            PreparedStatement matches = db.prepare(INSERT_MATCH);
+            PreparedStatement participants = db.prepare(INSERT_PARTICIPANT);
+            PreparedStatement scores = db.prepare(UPSERT_SCORE);
+            for (MatchResult result : batch) {
+                long id = nextMatchId.getAndIncrement();
+                matches.setLong(1, id);
+                matches.setString(2, result.getRoom());
+                matches.setLong(3, result.getSeed());
+                matches.setLong(4, result.getStartedAt());
+                matches.setLong(5, result.getEndedAt());
+                matches.setLong(6, result.getTicks());
+                matches.setInt(7, result.isCompleted() ? 1 : 0);
+                matches.addBatch();
+                for (MatchResult.Participant participant : result.getParticipants()) {
+                    participants.setLong(1, id);
+                    participants.setInt(2, participant.getPlayerId());
+                    participants.setString(3, participant.getUsername());
+                    participants.setInt(4, participant.getScore());
+                    participants.setInt(5, participant.isSurvived() ? 1 : 0);
+                    participants.addBatch();
+
+                    scores.setString(1, participant.getUsername());
+                    scores.setLong(2, participant.getScore());
+                    scores.setInt(3, participant.getScore());
+                    scores.setLong(4, result.getEndedAt());
+                    scores.addBatch();
+                }
+            }
+            matches.executeBatch(); // 先写 matches，参与者引用其编号
+            participants.executeBatch();
+            scores.executeBatch();
+            db.getConnection().commit();
+            written.addAndGet(batch.size());
+            batchTimes.record(System.nanoTime() - start);
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Wrote " + batch.size() + " match results in " + (System.nanoTime() - start) / 1000 + "us");
+            }
+        } catch (SQLException e) {
+            long count = dropped.addAndGet(batch.size());
+            logger.log(Level.SEVERE, "Failed to write " + batch.size() + " match results (" + count + " dropped so far): " + e.getMessage(), e);
+            return;
+        }
+
+        Listener listener = this.listener;
+        if (listener != null) {
+            try {
+                listener.matchesWritten(batch);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Match listener failed: " + e.getMessage(), e); // 不影响后续写入
+            }
+        }
+    }
+
+    /**
+     * 停止接收新结果，写完队列中剩余的结果后返回（最多等待 10 秒）。
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(SHUTDOWN); // 写线程在取出它之前会写完前面的结果
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warning("Match writer did not finish within " + CLOSE_TIMEOUT_MILLIS + " ms, " + queue.size() + " results pending");
+        } else {
+            int late = queue.size(); // 与关闭同时提交、排在 SHUTDOWN 之后的结果
+            if (late > 0) {
+                dropped.addAndGet(late);
+            }
+            logger.info("Match store closed, " + written.get() + " results written, " + dropped.get() + " dropped");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ex.airplane.Server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 只监听本机回环地址的纯文本指标端点，GET /metrics 返回 Prometheus 文本格式，可直接被抓取或用 curl 查看。
+ * 耗时以秒为单位，以 summary 的形式给出 p50、p99、最大值以及启动以来的次数和总和。
+ * 每次请求现场计算，由单个后台线程处理，不影响 I/O 和 tick 线程。
+ */
+public class MetricsEndpoint {
+    private static final Logger logger = Logger.getLogger(MetricsEndpoint.class.getName()); // 日志记录器
+
+    private final ServerStats stats; // 服务器指标
+    private HttpServer server; // HTTP 服务
+
+    public MetricsEndpoint(ServerStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * 在本机端口上启动，失败时只记录日志。
+     */
+    public void start(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", this::handle);
+            server.start(); // 默认执行器：一个后台线程处理所有请求
+            logger.info("Metrics available at http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port + "/metrics");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot start metrics endpoint on port " + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * 生成当前全部指标的文本。
+     */
+    String render() {
+        StringBuilder out = new StringBuilder(4096);
+        gauge(out, "game_connections", "Connected client sockets", stats.getConnectionCount());
+        gauge(out, "game_rooms", "Active rooms", stats.getActiveRooms());
+        summary(out, "game_tick_step_seconds", "Time for one tick thread to step all of its rooms", "", stats.getTickPool().getStepTimes());
+        counter(out, "game_tick_overruns_total", "Tick thread rounds that took longer than one step", stats.getTickOverruns());
+        counter(out, "game_tick_catch_up_steps_total", "Extra steps run to catch up after falling behind", stats.getCatchUpSteps());
+        counter(out, "game_tick_dropped_steps_total", "Steps dropped after falling too far behind", stats.getDroppedSteps());
+        summary(out, "game_login_seconds", "Time from first message to completed login, including queueing", "", stats.getLoginTimes());
+        gauge(out, "game_match_writes_pending", "Match results waiting to be written", stats.getPendingMatchWrites());
+        counter(out, "game_match_writes_total", "Match results written to the database", stats.getWrittenMatches());
+        counter(out, "game_match_writes_dropped_total", "Match results dropped (queue full, closed or write failed)", stats.getDroppedMatches());
+        summary(out, "game_match_write_batch_seconds", "Time to write one batch of match results in a transaction", "", stats.getMatchStore().getBatchTimes());
+
+        Map<String, RoomEngine> rooms = stats.getRooms();
+        header(out, "game_room_tick_seconds", "Room tick time, including snapshot encoding", "summary");
+        rooms.forEach((name, engine) -> quantiles(out, "game_room_tick_seconds", room(name), engine.stats.tickTimes));
+        header(out, "game_room_collide_seconds", "Room collision phase time", "summary");
+        rooms.forEach((name, engine) -> quantiles(out, "game_room_collide_seconds", room(name), engine.stats.collideTimes));
+        header(out, "game_room_encode_seconds", "Room snapshot capture, encode and enqueue time", "summary");
+        rooms.forEach((name, engine) -> quantiles(out, "game_room_encode_seconds", room(name), engine.stats.encodeTimes));
+        header(out, "game_room_snapshot_bytes_total", "Snapshot bytes queued to the room's clients", "counter");
+        rooms.forEach((name, engine) -> sample(out, "game_room_snapshot_bytes_total", room(name), engine.stats.getSnapshotBytesSent()));
+        header(out, "game_room_last_snapshot_bytes", "Largest snapshot of the room's last frame", "gauge");
+        rooms.forEach((name, engine) -> sample(out, "game_room_last_snapshot_bytes", room(name), engine.stats.getLastSnapshotBytes()));
+        header(out, "game_room_players", "Players in the room", "gauge");
+        rooms.forEach((name, engine) -> sample(out, "game_room_players", room(name), engine.stats.getPlayerCount()));
+        header(out, "game_room_entities", "Enemies, bullets and rewards in the room", "gauge");
+        rooms.forEach((name, engine) -> sample(out, "game_room_entities", room(name), engine.stats.getEntityCount()));
+
+        header(out, "game_connection_queue_depth", "Outbound messages queued per connection", "gauge");
+        for (ClientConnection connection : stats.getConnections()) {
+            sample(out, "game_connection_queue_depth", remote(connection), connection.getQueueDepth());
+        }
+        header(out, "game_connection_dropped_snapshots_total", "Snapshots overwritten before being written, per connection", "counter");
+        for (ClientConnection connection : stats.getConnections()) {
+            sample(out, "game_connection_dropped_snapshots_total", remote(connection), connection.getDroppedSnapshots());
+        }
+        return out.toString();
+    }
+
+    private static String room(String name) {
+        return "room=\"" + escape(name) + "\"";
+    }
+
+    private static String remote(ClientConnection connection) {
+        return "remote=\"" + escape(String.valueOf(connection.getRemoteAddress())) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "gauge");
+        sample(out, name, "", value);
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "counter");
+        sample(out, name, "", value);
+    }
+
+    private static void summary(StringBuilder out, String name, String help, String labels, Histogram histogram) {
+        header(out, name, help, "summary");
+        quantiles(out, name, labels, histogram);
+    }
+
+    /**
+     * 输出一个耗时分布：p50、p99、最大值（纳秒换算为秒），以及累计次数和总和。
+     *
+     * @param labels 其它标签，如 {@code room="a"}，没有时为空串
+     */
+    private static void quantiles(StringBuilder out, String name, String labels, Histogram histogram) {
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        seconds(out, name, prefix + "quantile=\"0.5\"", snapshot.getP50());
+        seconds(out, name, prefix + "quantile=\"0.99\"", snapshot.getP99());
+        seconds(out, name, prefix + "quantile=\"1\"", snapshot.getMax());
+        seconds(out, name + "_sum", labels, histogram.getSum());
+        sample(out, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void seconds(StringBuilder out, String name, String labels, long nanos) {
+        name(out, name, labels).append(String.format(Locale.ROOT, "%.9f", nanos / 1e9)).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        name(out, name, labels).append(value).append('\n');
+    }
+
+    private static StringBuilder name(StringBuilder out, String name, String labels) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        return out.append(' ');
+    }
+}
@@ -0,0 +1,204 @@
+package com.ex.airplane.Server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 基于 Selector 的非阻塞连接层：调用线程负责 accept，少量 I/O 线程各持有一个选择器，
+ * 以轮询方式分摊所有连接，不再为每个客户端占用一个线程。
+ */
+public class NioServer {
+    private static final Logger logger = Logger.getLogger(NioServer.class.getName()); // 日志记录器
+
+    /**
+     * 连接事件回调，都在连接所属的 I/O 线程上调用，不能阻塞。
+     */
+    public interface Listener {
+        void onOpen(ClientConnection connection);
+
+        void onLine(ClientConnection connection, String line);
+
+        void onClose(ClientConnection connection);
+    }
+
+    private final int port; // 监听端口
+    private final Listener listener; // 连接事件回调
+    private final IoLoop[] loops; // I/O 线程
+    private final Set<ClientConnection> connections = ConcurrentHashMap.newKeySet(); // 当前所有连接
+
+    public NioServer(int port, int ioThreads, Listener listener) {
+        this.port = port;
+        this.listener = listener;
+        this.loops = new IoLoop[Math.max(1, ioThreads)];
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * 当前所有连接的只读视图，可用于查看每个连接的出站排队深度和丢弃计数。
+     */
+    public Collection<ClientConnection> getConnections() {
+        return Collections.unmodifiableSet(connections);
+    }
+
+    /**
+     * 启动 I/O 线程并在当前线程循环接受新连接（不会返回，除非出错）。
+     */
+    public void run() throws IOException {
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new IoLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "nio-io-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port), 1024);
+            int next = 0;
+            while (serverChannel.isOpen()) {
+                SocketChannel channel = serverChannel.accept(); // 等待客户端连接
+                try {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Error configuring socket: " + e.getMessage(), e);
+                    channel.close();
+                    continue;
+                }
+                loops[next].register(channel); // 轮流分配给各个 I/O 线程
+                next = (next + 1) % loops.length;
+            }
+        }
+    }
+
+    /**
+     * 单个 I/O 线程，负责一部分连接的读写。
+     */
+    final class IoLoop implements Runnable {
+        private final Selector selector; // 选择器
+        private final Queue<SocketChannel> pendingRegistrations = new ConcurrentLinkedQueue<>(); // 待注册的新连接
+        private final Queue<ClientConnection> pendingWrites = new ConcurrentLinkedQueue<>(); // 有消息待写出的连接
+        private final Queue<ClientConnection> pendingCloses = new ConcurrentLinkedQueue<>(); // 已关闭、待回调的连接
+
+        IoLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(SocketChannel channel) {
+            pendingRegistrations.add(channel);
+            selector.wakeup();
+        }
+
+        void scheduleWrite(ClientConnection connection) {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+
+        /**
+         * 连接可能在 tick 线程（持有房间引擎锁）中被关闭，回调统一交给 I/O 线程，避免锁顺序颠倒。
+         */
+        void connectionClosed(ClientConnection connection) {
+            pendingCloses.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (selector.isOpen()) {
+                    selector.select();
+                    registerPending();
+                    flushPending();
+                    closePending();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ClientConnection connection = (ClientConnection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable(listener);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        } catch (IOException e) {
+                            logger.log(Level.FINE, "IO exception handling client " + connection.getRemoteAddress() + ": " + e.getMessage(), e); // 记录处理客户端时的IO异常
+                            connection.close();
+                        } catch (RuntimeException e) {
+                            logger.log(Level.SEVERE, "Error handling client " + connection.getRemoteAddress() + ": " + e.getMessage(), e);
+                            connection.close();
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                logger.log(Level.SEVERE, "I/O loop stopped: " + e.getMessage(), e);
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pendingRegistrations.poll()) != null) {
+                ClientConnection connection = new ClientConnection(channel, this);
+                try {
+                    connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Error registering socket: " + e.getMessage(), e);
+                    try {
+                        channel.close();
+                    } catch (IOException ignored) {
+                        // 已经无法使用的连接
+                    }
+                    continue;
+                }
+                connections.add(connection);
+                listener.onOpen(connection);
+            }
+        }
+
+        private void closePending() {
+            ClientConnection connection;
+            while ((connection = pendingCloses.poll()) != null) {
+                connections.remove(connection);
+                try {
+                    listener.onClose(connection);
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Error closing connection " + connection.getRemoteAddress() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        private void flushPending() {
+            ClientConnection connection;
+            while ((connection = pendingWrites.poll()) != null) {
+                if (!connection.isOpen()) {
+                    continue;
+                }
+                try {
+                    connection.flush();
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "IO exception writing to client " + connection.getRemoteAddress() + ": " + e.getMessage(), e);
+                    connection.close();
+                }
+            }
+        }
+    }
+}
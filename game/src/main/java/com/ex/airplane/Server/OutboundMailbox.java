@@ -0,0 +1,93 @@
+package com.ex.airplane.Server;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 单个连接的出站邮箱。
+ * 控制消息（SUCCESS、NEW_USER、GAMEOVER 等）按顺序排队且容量有限；
+ * 状态快照只保留最新的一份，新快照到达时未写出的旧快照直接丢弃。
+ * 任意线程都可以投递，只有连接所属的 I/O 线程取出。
+ */
+public class OutboundMailbox {
+    private final int capacity; // 控制消息队列容量
+
+    private final Queue<ByteBuffer> messages = new ConcurrentLinkedQueue<>(); // 控制消息
+    private final AtomicInteger depth = new AtomicInteger(); // 控制消息数量
+    private final AtomicReference<ByteBuffer> snapshot = new AtomicReference<>(); // 最新的未写出快照
+
+    private final AtomicLong droppedSnapshots = new AtomicLong(); // 被新快照覆盖而丢弃的快照总数
+    private final AtomicInteger consecutiveDrops = new AtomicInteger(); // 连续丢弃的快照数
+
+    public OutboundMailbox(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 投递控制消息。
+     *
+     * @return 队列已满时返回 false
+     */
+    public boolean offerMessage(ByteBuffer message) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            return false;
+        }
+        messages.add(message);
+        return true;
+    }
+
+    /**
+     * 投递状态快照，覆盖尚未写出的旧快照。
+     *
+     * @return 连续丢弃的快照数（上一份快照已写出时为 0）
+     */
+    public int offerSnapshot(ByteBuffer frame) {
+        if (snapshot.getAndSet(frame) == null) {
+            return consecutiveDrops.get();
+        }
+        droppedSnapshots.incrementAndGet();
+        return consecutiveDrops.incrementAndGet();
+    }
+
+    /**
+     * 取出下一段待写数据：先控制消息，再最新快照。
+     */
+    public ByteBuffer poll() {
+        ByteBuffer message = messages.poll();
+        if (message != null) {
+            depth.decrementAndGet();
+            return message;
+        }
+        ByteBuffer frame = snapshot.getAndSet(null);
+        if (frame != null) {
+            consecutiveDrops.set(0);
+        }
+        return frame;
+    }
+
+    public boolean isEmpty() {
+        return depth.get() == 0 && snapshot.get() == null;
+    }
+
+    public void clear() {
+        messages.clear();
+        depth.set(0);
+        snapshot.set(null);
+    }
+
+    /**
+     * 当前排队深度：控制消息数加上未写出的快照（0 或 1）。
+     */
+    public int getDepth() {
+        return depth.get() + (snapshot.get() != null ? 1 : 0);
+    }
+
+    public long getDroppedSnapshots() {
+        return droppedSnapshots.get();
+    }
+}
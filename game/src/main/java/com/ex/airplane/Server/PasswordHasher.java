@@ -0,0 +1,96 @@
+package com.ex.airplane.Server;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 密码的加盐哈希（PBKDF2-HMAC-SHA256），存储格式为
+ * {@code pbkdf2-sha256$迭代次数$盐$哈希}（盐和哈希为 Base64）。
+ * <p>
+ * 每次计算都要数十毫秒 CPU，只应在有界的登录线程池中调用，不能放在 I/O 或 tick 线程上。
+ * 迭代次数写在每条记录里，调高 {@code -Dgame.passwordIterations} 后旧记录仍能验证，并在下次登录成功时重新哈希。
+ * 不带前缀的值是旧版的明文密码，同样可以验证，并由调用方在登录成功后升级。
+ */
+public final class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256$"; // 存储格式前缀
+    private static final int ITERATIONS = Math.max(10_000, Integer.getInteger("game.passwordIterations", 120_000)); // 新哈希的迭代次数
+    private static final int SALT_BYTES = 16; // 盐的字节数
+    private static final int HASH_BITS = 256; // 哈希长度
+
+    private static final SecureRandom random = new SecureRandom(); // 生成盐
+    private static final String DUMMY = hash("dummy-password"); // 用户不存在时也做一次同样耗时的验证
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * 用新的随机盐计算密码的哈希。
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, ITERATIONS);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + ITERATIONS + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * 验证密码。比较用常量时间，不因匹配的前缀长度泄露信息。
+     *
+     * @param stored 存储的值，为 null（用户不存在）时仍做一次哈希，使耗时与用户存在时相同
+     */
+    public static boolean verify(String password, String stored) {
+        if (stored == null) {
+            verify(password, DUMMY);
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            // 旧版明文密码
+            return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false; // 记录损坏
+        }
+    }
+
+    /**
+     * 存储的值是否应该重新哈希：明文密码，或迭代次数低于当前设置。
+     */
+    public static boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e); // 所有 JDK 都内置该算法
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.ex.airplane.Server;
+
+import com.ex.airplane.core.EntityPool;
+import com.ex.airplane.core.MatchRecorder;
+import com.ex.airplane.core.Ship;
+import com.ex.airplane.core.World;
+import com.ex.airplane.protocol.Protocol;
+import com.ex.airplane.protocol.SnapshotEncoder;
+import com.ex.airplane.protocol.SnapshotHistory;
+import com.ex.airplane.protocol.WorldState;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 房间引擎，每个房间一个实例，独立持有该房间的 {@link World}（玩家、敌人、子弹、奖励以及生成计划）。
+ * 由 {@link TickPool} 中的某个 tick 线程按固定步长驱动，所有状态修改都在引擎锁内完成；
+ * 本类负责驱动世界、广播快照和消息，游戏规则都在 {@link World} 中。
+ */
+public class RoomEngine {
+    private static final Logger logger = Logger.getLogger(RoomEngine.class.getName()); // 日志记录器
+
+    private static final int ENEMY_SPAWN_INTERVAL  = 5000;  // 敌人生成间隔（毫秒）
+    private static final int REWARD_SPAWN_INTERVAL = 10000; // 奖励生成间隔（毫秒）
+    private static final int ENEMY_SPAWN_TICKS  = ENEMY_SPAWN_INTERVAL / Server.TIMER_DELAY;  // 敌人生成间隔（tick）
+    private static final int REWARD_SPAWN_TICKS = REWARD_SPAWN_INTERVAL / Server.TIMER_DELAY; // 奖励生成间隔（tick）
+
+    private final String name; // 房间名
+    private final TickPool tickPool; // 驱动本房间的 tick 线程池
+    private final MatchStore matchStore; // 对局结果的异步存储，为 null 时不保存
+    private final Set<ClientConnection> connections = ConcurrentHashMap.newKeySet(); // 房间内客户端的连接
+
+    private final World world = new World(ENEMY_SPAWN_TICKS, REWARD_SPAWN_TICKS, 0); // 房间的世界，只在引擎锁内访问；种子在每局开始时设定
+
+    // 每局的输入记录，可用 ReplayRunner 离线重放（-Dgame.recordMatches=false 关闭，-Dgame.replayDir 指定目录）
+    private static final boolean RECORD_MATCHES = Boolean.parseBoolean(System.getProperty("game.recordMatches", "true"));
+    private static final Path REPLAY_DIR = Paths.get(System.getProperty("game.replayDir", "replays"));
+    private static final Long FIXED_SEED = Long.getLong("game.seed"); // 指定时每局都用这个种子，否则随机选取
+
+    // 每隔多少个 tick 发送一次快照，默认 3（约 16.7 Hz），客户端用插值补足中间帧
+    static final int SNAPSHOT_EVERY_TICKS = Math.max(1, Integer.getInteger("game.snapshotEveryTicks", 3));
+    private static final int SNAPSHOT_HISTORY = 64; // 保留的历史快照数，客户端确认的基准更旧时改发关键帧
+    private static final int MAX_SHARED_FRAMES = 8; // 每帧缓存的不同基准数
+
+    private final SnapshotEncoder encoder = new SnapshotEncoder(); // 快照编码器（只在引擎锁内使用）
+    private final SnapshotHistory history = new SnapshotHistory(SNAPSHOT_HISTORY); // 最近发送的世界状态，槽位复用
+    private final long[] encodedBaselines = new long[MAX_SHARED_FRAMES]; // 本帧已编码的基准 tick
+    private final ByteBuffer[] encodedFrames = new ByteBuffer[MAX_SHARED_FRAMES]; // 本帧已编码的快照帧
+    private int nextPlayerId = 1; // 下一个玩家编号
+
+    private boolean started = false; // 游戏是否已开始
+    private long matchSeed; // 本局的随机数种子
+    private long matchStartedAt; // 本局开始时间（毫秒时间戳）
+    private final List<MatchResult.Participant> departed = new ArrayList<>(); // 本局中途离开的玩家的成绩
+    private long tickCount; // 房间已执行的 tick 数，只增不减，作为快照序号
+
+    volatile TickPool.Worker owner; // 当前负责驱动本房间的 tick 线程
+    volatile long averageTickNanos; // tick 耗时的滑动平均（纳秒），用于负载均衡
+    final RoomStats stats = new RoomStats(); // 运行指标，房间关闭时注销
+
+    /**
+     * @param matchStore 每局结束时把结果交给它异步保存，为 null 时不保存
+     */
+    public RoomEngine(String name, TickPool tickPool, MatchStore matchStore) {
+        this.name = name;
+        this.tickPool = tickPool;
+        this.matchStore = matchStore;
+        stats.register(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 推进一帧：生成到期的敌人和奖励，移动所有对象，处理碰撞并向房间广播最新状态。
+     * 与 {@link World#tick()} 相同，只是分阶段调用以便单独统计碰撞耗时。
+     */
+    public synchronized void tick() {
+        if (!started) {
+            return;
+        }
+
+        tickCount++;
+        world.spawnObjects();
+        if (world.isGameOver()) {
+            stopGame(); // 游戏结束时停止游戏逻辑
+        } else {
+            world.moveObjects();
+            long start = System.nanoTime();
+            world.handleCollisions();
+            stats.collideTimes.record(System.nanoTime() - start);
+            world.removeDeadObjects();
+        }
+
+        if (!started || tickCount % SNAPSHOT_EVERY_TICKS == 0) {
+            notifyGameObjects(); // 游戏结束时立即发送最终状态
+        }
+        stats.updateCounts(world.getPlayers().size(), world.getEntityCount());
+    }
+
+    /**
+     * 记录本帧的世界状态，并按每个客户端已确认的基准编码增量快照发送。
+     * 确认同一基准的客户端共享同一帧，通常每帧只需编码一两次。
+     */
+    private void notifyGameObjects() {
+        long start = System.nanoTime();
+        WorldState current = history.claim(tickCount);
+        capture(current);
+
+        int encodedCount = 0;
+        int largestFrame = 0;
+        long totalBytes = 0;
+        for (ClientConnection connection : connections) {
+            WorldState baseline = history.get(connection.getAckedTick());
+            if (baseline == current) {
+                baseline = null; // 不可能确认尚未发送的帧，按丢失处理
+            }
+            long baselineTick = baseline != null ? baseline.getTick() : -1;
+
+            ByteBuffer frame = null;
+            for (int i = 0; i < encodedCount; i++) {
+                if (encodedBaselines[i] == baselineTick) {
+                    frame = encodedFrames[i];
+                    break;
+                }
+            }
+            if (frame == null) {
+                frame = encoder.encode(baseline, current);
+                if (encodedCount < encodedFrames.length) {
+                    encodedBaselines[encodedCount] = baselineTick;
+                    encodedFrames[encodedCount++] = frame;
+                }
+            }
+            largestFrame = Math.max(largestFrame, frame.remaining());
+            totalBytes += frame.remaining();
+            connection.sendSnapshot(frame);
+        }
+        Arrays.fill(encodedFrames, 0, encodedCount, null);
+        stats.encodeTimes.record(System.nanoTime() - start);
+        stats.recordSnapshot(largestFrame, totalBytes);
+    }
+
+    /**
+     * 把当前所有对象写入世界状态，坐标量化到协议范围。
+     */
+    private void capture(WorldState state) {
+        WorldState.Table table = state.table(Protocol.TAG_PLAYER);
+        for (Ship player : world.getPlayers()) {
+            table.add(player.getId(), Protocol.quantize(player.getX()), Protocol.quantize(player.getY()),
+                    0, 0, player.getScore(), player.isAlive());
+            table.setInputSeq(table.size() - 1, player.getLastInputSeq());
+        }
+        capture(state.table(Protocol.TAG_ENEMY), world.getEnemies());
+        capture(state.table(Protocol.TAG_BULLET), world.getBullets());
+        capture(state.table(Protocol.TAG_REWARD), world.getRewards());
+    }
+
+    private static void capture(WorldState.Table table, EntityPool objects) {
+        for (int i = 0; i < objects.size(); i++) {
+            table.add(objects.id(i), Protocol.quantize(objects.x(i)), Protocol.quantize(objects.y(i)),
+                    objects.vx(i), objects.vy(i), 0, true);
+        }
+        table.sortById(); // 池按生成顺序排列，编号本已升序，这里只做保险
+    }
+
+    /**
+     * 开始游戏，把本房间交给 tick 线程池驱动。
+     */
+    public synchronized void startGame() {
+        if (started) {
+            return;
+        }
+
+        started = true;
+        long seed = FIXED_SEED != null ? FIXED_SEED : ThreadLocalRandom.current().nextLong();
+        world.restart(seed); // tickCount 不重置，旧的确认不会错配到新的一局
+        matchSeed = seed;
+        matchStartedAt = System.currentTimeMillis();
+        departed.clear();
+        if (RECORD_MATCHES) {
+            world.startRecording(MatchRecorder.open(REPLAY_DIR, name, seed, world, Server.TIMER_DELAY));
+        }
+
+        tickPool.schedule(this);
+    }
+
+    private void stopGame() {
+        started = false;
+        tickPool.unschedule(this); // 停止驱动本房间
+        world.stopRecording();
+        saveMatch(true);
+
+        broadcastMessage("GAMEOVER;");
+    }
+
+    /**
+     * 关闭房间（房间内已无客户端时调用）。
+     */
+    public synchronized void shutdown() {
+        if (started) {
+            saveMatch(false); // 对局中途所有玩家都离开了
+        }
+        started = false;
+        tickPool.unschedule(this);
+
+        world.stopRecording(); // 对局中途房间被关闭时，记录到此为止
+        world.clear();
+        stats.unregister();
+    }
+
+    /**
+     * 把本局结果（在场玩家和中途离开的玩家）交给 {@link MatchStore}，只入队，不等待写入。
+     *
+     * @param completed 是否正常结束
+     */
+    private void saveMatch(boolean completed) {
+        if (matchStore == null) {
+            return;
+        }
+        List<MatchResult.Participant> participants = new ArrayList<>(departed);
+        for (Ship player : world.getPlayers()) {
+            participants.add(new MatchResult.Participant(player.getId(), player.getUsername(), player.getScore(), player.isAlive()));
+        }
+        departed.clear();
+        if (!participants.isEmpty()) {
+            matchStore.submit(new MatchResult(name, matchSeed, matchStartedAt, System.currentTimeMillis(),
+                    world.getGameTicks(), completed, participants));
+        }
+    }
+
+    /**
+     * 向房间内的所有客户端广播消息
+     *
+     * @param message 消息内容
+     */
+    public void broadcastMessage(String message) {
+        if (logger.isLoggable(Level.FINEST)) {
+            logger.finest("broadcastMessage(" + name + "): " + message);
+        }
+        ByteBuffer encoded = SnapshotEncoder.encodeText(message); // 只编码一次，所有连接共享
+        for (ClientConnection connection : connections) {
+            connection.send(encoded); // 向每个客户端发送消息（只入队，由 I/O 线程写出）
+        }
+    }
+
+    public void addConnection(ClientConnection connection) {
+        connections.add(connection);
+    }
+
+    public void removeConnection(ClientConnection connection) {
+        connections.remove(connection);
+    }
+
+    public boolean isEmpty() {
+        return connections.isEmpty();
+    }
+
+    /**
+     * 添加玩家：先把房间内已有玩家告知新客户端，再向房间内的所有客户端广播新用户加入的消息。
+     * NEW_USER 消息带有玩家编号，快照中只按编号引用玩家。
+     *
+     * @param username   用户名
+     * @param connection 新玩家的连接
+     */
+    public synchronized void addPlayer(String username, ClientConnection connection) {
+        for (Ship player : world.getPlayers()) {
+            connection.send("NEW_USER;" + player.getUsername() + ";" + player.getX() + ";" + player.getY() + ";" + player.getId());
+        }
+
+        int x = world.getPlayers().size() * 80;
+        int y = 500;
+        Ship player = world.addPlayer(nextPlayerId++, username, x, y);
+        broadcastMessage("NEW_USER;" + username + ";" + x + ";" + y + ";" + player.getId());
+    }
+
+    public synchronized void removePlayer(String username) {
+        Ship player = world.getPlayer(username);
+        if (player != null) {
+            if (started) {
+                departed.add(new MatchResult.Participant(player.getId(), username, player.getScore(), false)); // 成绩仍计入本局
+            }
+            world.removePlayer(player);
+        }
+    }
+
+    public synchronized Ship getPlayer(String username) {
+        return world.getPlayer(username);
+    }
+
+    public synchronized int getEntityCount() {
+        return world.getEntityCount();
+    }
+
+    /**
+     * 处理玩家按键按下。
+     *
+     * @param seq 客户端的输入序号，随快照回传；为 0 表示客户端不做预测
+     */
+    public synchronized void keyPressed(Ship player, int keyEventCode, int seq) {
+        world.keyPressed(player, keyEventCode);
+        acknowledgeInput(player, seq);
+    }
+
+    public synchronized void keyReleased(Ship player, int keyEventCode, int seq) {
+        world.keyReleased(player, keyEventCode);
+        acknowledgeInput(player, seq);
+    }
+
+    private void acknowledgeInput(Ship player, int seq) {
+        if (seq > player.getLastInputSeq()) {
+            player.setLastInputSeq(seq);
+        }
+    }
+}
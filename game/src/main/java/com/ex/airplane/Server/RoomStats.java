@@ -0,0 +1,144 @@
+package com.ex.airplane.Server;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 单个房间的运行指标：tick、碰撞和快照编码的耗时分布，快照流量以及对象数量。
+ * tick 线程写入，JMX 和 {@link MetricsEndpoint} 读取；计数只在 tick 结束时更新，读取不需要引擎锁。
+ */
+public class RoomStats implements RoomStatsMBean {
+    private static final Logger logger = Logger.getLogger(RoomStats.class.getName()); // 日志记录器
+
+    final Histogram tickTimes = new Histogram(); // 整个 tick 的耗时（含快照编码和入队）
+    final Histogram collideTimes = new Histogram(); // 碰撞检测的耗时
+    final Histogram encodeTimes = new Histogram(); // 记录世界状态、编码快照并投递给各连接的耗时（每个发送快照的 tick 一次）
+    private final LongAdder snapshotBytesSent = new LongAdder(); // 已入队的快照字节数
+
+    private volatile int lastSnapshotBytes; // 最近一帧最大的快照字节数
+    private volatile int playerCount; // 玩家数
+    private volatile int entityCount; // 敌人、子弹、奖励的总数
+
+    private ObjectName objectName; // 注册的 JMX 对象名，未注册时为 null
+
+    /**
+     * 注册为 JMX MBean，失败时只记录日志。
+     */
+    void register(String room) {
+        try {
+            ObjectName name = new ObjectName("com.ex.airplane:type=Room,name=" + ObjectName.quote(room));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name); // 同名房间关闭时未能注销
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Cannot register metrics for room " + room + ": " + e.getMessage(), e);
+        }
+    }
+
+    void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            logger.log(Level.FINE, "Cannot unregister " + objectName + ": " + e.getMessage(), e);
+        }
+        objectName = null;
+    }
+
+    /**
+     * 记录一帧快照：最大一份的字节数和发送给所有连接的总字节数。
+     */
+    void recordSnapshot(int largestFrameBytes, long totalBytes) {
+        lastSnapshotBytes = largestFrameBytes;
+        snapshotBytesSent.add(totalBytes);
+    }
+
+    void updateCounts(int players, int entities) {
+        playerCount = players;
+        entityCount = entities;
+    }
+
+    static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    @Override
+    public long getTickCount() {
+        return tickTimes.getCount();
+    }
+
+    @Override
+    public double getTickP50Micros() {
+        return micros(tickTimes.snapshot().getP50());
+    }
+
+    @Override
+    public double getTickP99Micros() {
+        return micros(tickTimes.snapshot().getP99());
+    }
+
+    @Override
+    public double getTickMaxMicros() {
+        return micros(tickTimes.snapshot().getMax());
+    }
+
+    @Override
+    public double getCollideP50Micros() {
+        return micros(collideTimes.snapshot().getP50());
+    }
+
+    @Override
+    public double getCollideP99Micros() {
+        return micros(collideTimes.snapshot().getP99());
+    }
+
+    @Override
+    public double getCollideMaxMicros() {
+        return micros(collideTimes.snapshot().getMax());
+    }
+
+    @Override
+    public double getEncodeP50Micros() {
+        return micros(encodeTimes.snapshot().getP50());
+    }
+
+    @Override
+    public double getEncodeP99Micros() {
+        return micros(encodeTimes.snapshot().getP99());
+    }
+
+    @Override
+    public double getEncodeMaxMicros() {
+        return micros(encodeTimes.snapshot().getMax());
+    }
+
+    @Override
+    public long getSnapshotBytesSent() {
+        return snapshotBytesSent.sum();
+    }
+
+    @Override
+    public int getLastSnapshotBytes() {
+        return lastSnapshotBytes;
+    }
+
+    @Override
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    @Override
+    public int getEntityCount() {
+        return entityCount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ex.airplane.Server;
+
+/**
+ * 单个房间的运行指标（JMX 接口），对象名为 {@code com.ex.airplane:type=Room,name="房间名"}。
+ * 耗时为最近约一到两分钟内的分布，单位微秒。
+ */
+public interface RoomStatsMBean {
+    long getTickCount();
+
+    double getTickP50Micros();
+
+    double getTickP99Micros();
+
+    double getTickMaxMicros();
+
+    double getCollideP50Micros();
+
+    double getCollideP99Micros();
+
+    double getCollideMaxMicros();
+
+    double getEncodeP50Micros();
+
+    double getEncodeP99Micros();
+
+    double getEncodeMaxMicros();
+
+    /**
+     * 已发送给本房间客户端的快照字节数（每个连接分别计数）。
+     */
+    long getSnapshotBytesSent();
+
+    /**
+     * 最近一帧快照中最大的一份的字节数。
+     */
+    int getLastSnapshotBytes();
+
+    int getPlayerCount();
+
+    int getEntityCount();
+}
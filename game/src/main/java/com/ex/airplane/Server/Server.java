@@ -1,73 +1,101 @@
 package com.ex.airplane.Server;
 
-import com.ex.airplane.CollisionHandler;
-import com.ex.airplane.GameObject.Bullet;
-import com.ex.airplane.GameObject.Enemy;
-import com.ex.airplane.GameObject.Reward;
-import com.ex.airplane.ScoreManager;
-import com.ex.airplane.multiplayer.MultiPlayer;
-
-import javax.swing.*;
-import javax.swing.Timer;
-import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.event.KeyEvent;
+import com.ex.airplane.core.Ship;
+import com.ex.airplane.protocol.Protocol;
+
 import java.io.*;
-import java.net.*;
 import java.sql.*;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.*;
 
-public class Server implements ActionListener {
+public class Server {
     private static final int PORT = 8888; // 服务器端口
     private static final String DB_URL = "jdbc:sqlite:game.db"; // 数据库 URL
 
-    public static final int PANEL_WIDTH = 800; // 面板宽度
-    public static final int PANEL_HEIGHT = 600; // 面板高度
+    static final int TIMER_DELAY = Protocol.TICK_MILLIS; // 游戏 tick 步长（毫秒），即 50 Hz
 
-    // 在Printwriter里面加player信息
-    private static final ConcurrentHashMap<String, Set<PrintWriter>> rooms = new ConcurrentHashMap<>(); // 房间列表
-    private static final ExecutorService executor = Executors.newFixedThreadPool(10); // 线程池
+    private static final ConcurrentHashMap<String, RoomEngine> rooms = new ConcurrentHashMap<>(); // 房间列表（每个房间一个引擎）
+    private static final int IO_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)); // I/O 线程数
+    // 登录需要查询数据库并计算密码哈希，放到单独的线程池执行，避免阻塞 I/O 线程；
+    // 线程数有上限且少于 CPU 核数，排队的登录也有上限，登录高峰时不会挤占 tick 和 I/O 线程，超出的登录直接拒绝
+    private static final int AUTH_THREADS = Math.max(1, Integer.getInteger("game.authThreads", Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final int AUTH_QUEUE_CAPACITY = Math.max(1, Integer.getInteger("game.authQueue", 256)); // 排队等待验证的登录数上限
+    private static final ExecutorService authExecutor = createAuthExecutor();
     private static final Logger logger = Logger.getLogger(Server.class.getName()); // 日志记录器
+    // 本机指标端点的端口（只监听回环地址），小于等于 0 时不启动；JMX 指标总是注册
+    private static final int METRICS_PORT = Integer.getInteger("game.metricsPort", 9100);
+    // 压测机器人（BotLoadGenerator）使用的账号数，大于 0 时启动时创建 bot1 到 botN，密码均为 bot；默认不创建
+    private static final int BOT_ACCOUNTS = Integer.getInteger("game.botAccounts", 0);
+    private static final int MAX_LEADERBOARD_PAGE = 100; // LEADERBOARD 命令每页最多返回的条数
 
-
-    private final ScoreManager scoreManager = new ScoreManager(); // 分数管理器
-    private Timer enemySpawnTimer; // 敌人生成计时器
-    private Timer rewardSpawnTimer; // 奖励生成计时器
-
-    private static final int ENEMY_SPAWN_INTERVAL  = 5000;  // 敌人生成间隔（毫秒）
-    private static final int REWARD_SPAWN_INTERVAL = 10000; // 奖励生成间隔（毫秒）
-    private static final int TIMER_DELAY = 20; // 游戏主计时器延迟（毫秒）
-
-    private Timer timer; // 游戏主计时器
-    protected final Vector<MultiPlayer> players = new Vector<>(); // 玩家列表
-    protected final Vector<Enemy> enemies = new Vector<>(); // 敌人列表
-    protected final Vector<Bullet> bullets = new Vector<>(); // 子弹列表
-    protected final Vector<Reward> rewards = new Vector<>(); // 奖励列表
-
+    // 所有房间共享的 tick 线程，数量与 CPU 核数一致
+    private final TickPool tickPool = new TickPool(Runtime.getRuntime().availableProcessors(), TIMER_DELAY);
+    private final Histogram loginTimes = new Histogram(); // 登录耗时（含排队）
+    private UserStore userStore; // 账号存储，启动时创建
+    private MatchStore matchStore; // 对局结果存储，启动时创建
+    private Leaderboards leaderboards; // 排行榜，启动时从数据库加载
 
 
     public static void main(String[] args) throws IOException{
         new Server().startServer();
     }
 
+    private static ExecutorService createAuthExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(AUTH_THREADS, AUTH_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(AUTH_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "auth-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }); // 队列满时抛出 RejectedExecutionException
+    }
+
     public void startServer() throws IOException {
-        logger.info("Server started on port " + PORT); // 记录服务器启动日志
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) { // 使用try-with-resources语句自动关闭ServerSocket
+        logger.info("Server started on port " + PORT + " with " + IO_THREADS + " I/O threads and " + tickPool.getThreadCount() + " tick threads"); // 记录服务器启动日志
+        try {
             // 加载数据库驱动
             Class.forName("org.sqlite.JDBC");
 
-            // 初始化数据库连接
-            try (Connection conn = DriverManager.getConnection(DB_URL)) {
+            // 初始化数据库连接池，每个登录线程一个连接，另加一个给对局结果的写线程
+            try (ConnectionPool pool = new ConnectionPool(DB_URL, AUTH_THREADS + 1);
+                 MatchStore matches = new MatchStore(pool)) {
+                userStore = new UserStore(pool);
+                matchStore = matches;
                 // 创建数据库表（如果尚不存在）
-                createTables(conn);
+                createTables(userStore);
+                // 加载排行榜，之后随对局结果的写入增量更新
+                leaderboards = new Leaderboards(pool);
+                matches.setListener(leaderboards);
+                // 进程被终止时写完排队的对局结果
+                Runtime.getRuntime().addShutdownHook(new Thread(matches::close, "match-store-shutdown"));
+
+                NioServer nioServer = new NioServer(PORT, IO_THREADS, new NioServer.Listener() {
+                    @Override
+                    public void onOpen(ClientConnection connection) {
+                        connection.attach(new Handler(connection)); // 为每个客户端连接创建一个Handler
+                    }
+
+                    @Override
+                    public void onLine(ClientConnection connection, String line) {
+                        ((Handler) connection.attachment()).onLine(line);
+                    }
 
-                while (true) {
-                    Socket socket = serverSocket.accept(); // 等待客户端连接
-                    executor.execute(new Handler(socket, conn)); // 为每个客户端连接创建一个新的Handler线程
+                    @Override
+                    public void onClose(ClientConnection connection) {
+                        ((Handler) connection.attachment()).closeResources(); // 确保资源被正确释放
+                    }
+                });
+
+                ServerStats stats = new ServerStats(nioServer, tickPool, rooms, loginTimes, matchStore);
+                stats.register(); // JMX：com.ex.airplane:type=Server，每个房间另有 type=Room
+                if (METRICS_PORT > 0) {
+                    new MetricsEndpoint(stats).start(METRICS_PORT);
                 }
+
+                nioServer.run();
             } catch (SQLException e) {
                 logger.log(Level.SEVERE, "Database error: " + e.getMessage(), e); // 记录数据库错误
             }
@@ -80,298 +108,195 @@ public class Server implements ActionListener {
     }
 
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (!isGameOver()) {
-            enemies.forEach(Enemy::move); // 移动所有敌人
-            bullets.forEach(Bullet::move); // 移动所有子弹
-            rewards.forEach(Reward::move); // 移动所有奖励
-
-            for(MultiPlayer player:players) {
-                CollisionHandler.handleCollisions(player, enemies, bullets, rewards, scoreManager); // 处理碰撞
-            }
-
-            removeDeadObjects(); // 移除死亡的敌人、子弹和奖励
-        } else {
-            stopGame(); // 游戏结束时停止游戏逻辑
-        }
-
-        notifyGameObjects();
-    }
-
-    private void notifyGameObjects() {
-        StringBuffer sb = new StringBuffer();
-        for(MultiPlayer player: players){
-            sb.append("player,"+player.getUsername()+","+player.getX()+","+player.getY()+","+player.getScore()+","+player.isAlive()+";");
-        }
-
-        for(Enemy enemy:enemies){
-            sb.append("enemy,"+enemy.getX()+","+enemy.getY()+";");
-        }
-
-        for(Bullet bullet:bullets){
-            sb.append("bullet,"+bullet.getX()+","+bullet.getY()+";");
-        }
-
-        for(Reward reward:rewards){
-            sb.append("reward,"+reward.getX()+","+reward.getY()+";");
-        }
-
-        broadcastMessage(sb.toString());
-    }
-
-    private void stopGame(){
-        started = false;
-
-        if(timer!=null){
-            timer.stop(); // 停止游戏主计时器
-        }
-        stopEnemySpawnTimer(); // 停止敌人生成计时器
-        stopRewardSpawnTimer(); // 停止奖励生成计时器
-
-        broadcastMessage("GAMEOVER;");
-    }
-
-    /**
-     * 移除死亡的敌人、子弹和奖励。
-     */
-    private void removeDeadObjects() {
-        enemies.removeIf(enemy -> !enemy.isAlive()); // 移除死亡的敌人
-        bullets.removeIf(bullet -> !bullet.isAlive()); // 移除消失的子弹
-        rewards.removeIf(reward -> !reward.isAlive()); // 移除消失的奖励
-    }
-
-    private boolean isGameOver(){
-        for(MultiPlayer player:players){
-            if(player.isAlive()){
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-
     /**
-     * 创建数据库表（如果尚不存在）。
+     * 创建数据库表（如果尚不存在）并写入测试账号。
      *
-     * @param conn 数据库连接
+     * @param users 账号存储
      * @throws SQLException 如果数据库操作失败
      */
-    private static void createTables(Connection conn) throws SQLException {
-        String createUsersTableSQL = "CREATE TABLE IF NOT EXISTS users (" +
-                "username TEXT PRIMARY KEY," +
-                "password TEXT NOT NULL" +
-                ");";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(createUsersTableSQL); // 执行创建表 SQL
-
-            for(int i=1;i<=5;i++) {
-                stmt.execute("replace INTO users(username,password) VALUES('user"+i+"', '123456');");
-            }
-        }
-    }
-
-
-    private boolean started = false;
+    private static void createTables(UserStore users) throws SQLException {
+        users.createTables(); // 执行创建表 SQL
 
-    /**
-     * 初始化游戏设置，包括启动游戏主计时器和敌人生成计时器。
-     */
-    private void startGame() {
-        if(started){
-            return;
+        List<String> testUsers = new ArrayList<>();
+        for(int i=1;i<=5;i++) {
+            testUsers.add("user"+i);
         }
+        users.putUsers(testUsers, "123456");
 
-        started = true;
-
-        timer = new Timer(TIMER_DELAY, this); // 启动游戏主计时器
-        timer.start();
-
-        startEnemySpawnTimer(); // 启动敌人生成计时器
-        startRewardSpawnTimer(); // 启动奖励生成计时器
-    }
-
-    /**
-     * 启动敌人生成计时器，定期生成敌人。
-     */
-    private void startEnemySpawnTimer() {
-        enemySpawnTimer = new Timer(ENEMY_SPAWN_INTERVAL, e -> spawnEnemy());
-        enemySpawnTimer.start();
-    }
-
-    /**
-     * 停止敌人生成计时器。
-     */
-    private void stopEnemySpawnTimer() {
-        if (enemySpawnTimer != null) {
-            enemySpawnTimer.stop();
-        }
-    }
-
-    /**
-     * 启动奖励生成计时器，定期生成奖励。
-     */
-    private void startRewardSpawnTimer() {
-        rewardSpawnTimer = new Timer(REWARD_SPAWN_INTERVAL, e -> spawnReward());
-        rewardSpawnTimer.start();
-    }
-
-    /**
-     * 停止奖励生成计时器。
-     */
-    private void stopRewardSpawnTimer() {
-        if (rewardSpawnTimer != null) {
-            rewardSpawnTimer.stop();
+        if (BOT_ACCOUNTS > 0) {
+            List<String> bots = new ArrayList<>(BOT_ACCOUNTS);
+            for (int i = 1; i <= BOT_ACCOUNTS; i++) {
+                bots.add("bot" + i);
+            }
+            users.putUsers(bots, "bot"); // 一次事务写入，避免每个账号一次磁盘同步
+            logger.warning("Created " + BOT_ACCOUNTS + " load-test accounts (bot1..bot" + BOT_ACCOUNTS + "); do not enable game.botAccounts in production");
         }
     }
 
-    /**
-     * 生成敌人，随机位置。
-     */
-    private void spawnEnemy() {
-        if (!isGameOver()) {
-            enemies.add(new Enemy((int) (Math.random() * (PANEL_WIDTH - 50)), 0)); // 随机生成敌人位置
-        }
-    }
 
     /**
-     * 生成奖励，随机位置。
+     * Handler 类表示一个客户端连接的会话，处理该连接上收到的每一行消息。
+     * onLine 在连接所属的 I/O 线程上调用，登录校验交给 authExecutor 执行。
      */
-    private void spawnReward() {
-        if (!isGameOver()) {
-            rewards.add(new Reward((int) (Math.random() * (PANEL_WIDTH - 50)), 0)); // 随机生成奖励位置
-        }
-    }
+    private class Handler {
+        private final ClientConnection out; // 客户端连接
+        private String room; // 客户端所在的房间
+        private volatile RoomEngine engine; // 客户端所在房间的引擎（登录线程写入，I/O 线程读取）
+        private boolean greeted; // 是否已收到第一条消息
 
+        private String username;
 
-    //默认为第一个房间
-    public void broadcastMessage(  String message) {
-        if(!rooms.isEmpty()) {
-            broadcastMessage(rooms.keys().nextElement(),message);
+        public Handler(ClientConnection out) {
+            this.out = out;
         }
-    }
 
-    /**
-     * 向指定房间内的所有客户端广播消息
-     *
-     * @param room 房间名
-     * @param message 消息内容
-     */
-    public void broadcastMessage(String room, String message) {
-        System.out.println("broadcastMessage("+rooms.size()+"): "+room+", "+message);
-        Set<PrintWriter> writers = rooms.get(room);
-        if (writers != null) {
-            for (PrintWriter writer : writers) {
-                writer.println(message); // 向每个客户端发送消息
+        public void onLine(String message) {
+            // 排行榜查询在登录前后都可以发送，不算作登录消息
+            if (message.startsWith("LEADERBOARD;")) {
+                handleLeaderboard(message);
+                return;
+            }
+            if (message.startsWith("RANK;")) {
+                handleRank(message);
+                return;
             }
-        }
-    }
-
 
+            if (!greeted) {
+                greeted = true;
+                onFirstMessage(message);
+                return;
+            }
 
-    private void keyPressed(MultiPlayer player,int keyEventCode) {
-        KeyEvent event = new KeyEvent(new JLabel(),0,0,0,keyEventCode);
+            // 快照确认每帧都有，单独处理且不打印
+            if (message.startsWith("ACK;")) {
+                try {
+                    out.acknowledge(Long.parseLong(message.substring(4)));
+                } catch (NumberFormatException e) {
+                    logger.log(Level.WARNING, "Invalid ack from " + username + ": " + message);
+                }
+                return;
+            }
+            if (message.startsWith("RESYNC;")) {
+                out.resync();
+                return;
+            }
 
-        if (player.isAlive()) {
-            player.getKeyAdapter(bullets).keyPressed(event); // 处理玩家按键事件
-        }
-    }
+            if (logger.isLoggable(Level.FINEST)) {
+                logger.finest(">>> " + username + " :: " + message);
+            }
 
-    private void keyReleased(MultiPlayer player, int keyEventCode) {
-        if (player.isAlive()) {
-            KeyEvent event = new KeyEvent(new JLabel(),0,0,0,keyEventCode);
+            RoomEngine engine = this.engine;
+            if (engine == null) {
+                return; // 尚未进入房间
+            }
 
-            player.getKeyAdapter(bullets).keyReleased(event); // 处理玩家按键释放事件
+            Ship player = engine.getPlayer(username);
+            if(player!=null) {
+                try {
+                    // KEY_PRESSED;按键码[;输入序号]
+                    String[] parts = message.split(";");
+                    int seq = parts.length > 2 ? Integer.parseInt(parts[2]) : 0;
+                    if (message.startsWith("KEY_PRESSED;")) {
+                        engine.keyPressed(player, Integer.parseInt(parts[1]), seq);
+                    } else if (message.startsWith("KEY_RELEASED;")) {
+                        engine.keyReleased(player, Integer.parseInt(parts[1]), seq);
+                    }
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Invalid input from " + username + ": " + message);
+                }
+            }
         }
-    }
 
+        /**
+         * 处理排行榜查询：LEADERBOARD;偏移;条数[;ALL|DAY|WEEK]，只读内存中的榜单。
+         * 回复 LEADERBOARD;周期;偏移;上榜人数;用户名;分数;用户名;分数...
+         */
+        private void handleLeaderboard(String message) {
+            String[] parts = message.split(";");
+            Leaderboards.Period period = parts.length > 3 ? Leaderboards.Period.parse(parts[3]) : Leaderboards.Period.ALL;
+            int offset;
+            int limit;
+            try {
+                offset = Integer.parseInt(parts[1]);
+                limit = Math.min(Integer.parseInt(parts[2]), MAX_LEADERBOARD_PAGE);
+            } catch (RuntimeException e) {
+                offset = -1;
+                limit = -1;
+            }
+            if (period == null || offset < 0 || limit < 0) {
+                out.send("ERROR;Invalid leaderboard request");
+                return;
+            }
 
-    private MultiPlayer getPlayer(String username) {
-        for(MultiPlayer player:players){
-            if(player.getUsername().equals(username)){
-                return player;
+            Leaderboard board = leaderboards.board(period);
+            List<Leaderboard.Entry> entries = board.page(offset, limit);
+            StringBuilder reply = new StringBuilder(32 + entries.size() * 24);
+            reply.append("LEADERBOARD;").append(period).append(';').append(offset).append(';').append(board.size());
+            for (Leaderboard.Entry entry : entries) {
+                reply.append(';').append(entry.getUsername()).append(';').append(entry.getScore());
             }
+            out.send(reply.toString());
         }
 
-        return null;
-    }
-
-    /**
-     * Handler 类表示一个处理客户端连接的线程。
-     */
-    private class Handler implements Runnable {
-        private final Socket socket; // 客户端套接字
-        private final Connection dbConnection; // 数据库连接
-        private PrintWriter out; // 客户端输出流
-        private BufferedReader in; // 客户端输入流
-        private String room; // 客户端所在的房间
-
-        private String username;
+        /**
+         * 处理名次查询：RANK;用户名[;ALL|DAY|WEEK]，回复 RANK;周期;用户名;名次;分数，未上榜时名次和分数为 0。
+         */
+        private void handleRank(String message) {
+            String[] parts = message.split(";");
+            Leaderboards.Period period = parts.length > 2 ? Leaderboards.Period.parse(parts[2]) : Leaderboards.Period.ALL;
+            if (parts.length < 2 || period == null) {
+                out.send("ERROR;Invalid rank request");
+                return;
+            }
 
-        public Handler(Socket socket, Connection dbConnection) {
-            this.socket = socket;
-            this.dbConnection = dbConnection;
+            Leaderboard.Entry entry = leaderboards.board(period).find(parts[1]);
+            out.send("RANK;" + period + ";" + parts[1] + ";" + (entry != null ? entry.getRank() : 0) + ";" + (entry != null ? entry.getScore() : 0));
         }
 
-        @Override
-        public void run() {
-            try {
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream())); // 初始化输入流
-                out = new PrintWriter(socket.getOutputStream(), true); // 初始化输出流，并开启自动刷新
-
-                // 读取客户端发送的第一条消息，包含操作命令、用户名、房间信息等
-                String message = in.readLine();
-                if (message == null) {
-                    return; // 如果读取为空，则直接返回
-                }
+        /**
+         * 处理客户端发送的第一条消息，包含操作命令、用户名、房间信息等。
+         */
+        private void onFirstMessage(String message) {
+            // 解析消息格式
+            String[] parts = message.split(";");
+            if (parts.length < 5) {
+                out.send("ERROR;Invalid message format"); // 如果消息格式不正确，向客户端发送错误消息
+                out.closeAfterFlush();
+                return;
+            }
 
-                // 解析消息格式
-                String[] parts = message.split(";");
-                if (parts.length < 5) {
-                    out.println("ERROR;Invalid message format"); // 如果消息格式不正确，向客户端发送错误消息
+            String command = parts[0]; // 消息命令
+            String username = parts[2]; // 用户名
+            String password = parts[3]; // 密码
+            this.room = parts[4]; // 房间名
+
+            this.username = username;
+            long received = System.nanoTime(); // 登录耗时从收到消息起算，包括在登录线程排队的时间
+
+            // 根据命令处理不同的请求
+            Runnable login;
+            switch (command) {
+                case "CREATE":
+                    login = () -> handleCreateRoom(username, password); // 处理创建房间请求
+                    break;
+                case "JOIN":
+                    login = () -> handleJoinRoom(username, password); // 处理加入房间请求
+                    break;
+                default:
+                    out.send("ERROR;Unknown command"); // 未知命令
+                    out.closeAfterFlush();
                     return;
-                }
-
-                String command = parts[0]; // 消息命令
-                String username = parts[2]; // 用户名
-                String password = parts[3]; // 密码
-                this.room = parts[4]; // 房间名
-
-                this.username = username;
-
-                // 根据命令处理不同的请求
-                switch (command) {
-                    case "CREATE":
-                        handleCreateRoom(username, password); // 处理创建房间请求
-                        break;
-                    case "JOIN":
-                        handleJoinRoom(username, password); // 处理加入房间请求
-                        break;
-                    default:
-                        out.println("ERROR;Unknown command"); // 未知命令
-                        return;
-                }
-
-
-                // 循环读取客户端发送的消息，并广播到房间内
-                String input;
-                while ((input = in.readLine()) != null) {
-                    System.out.println(">>> "+username+" :: "+input);
+            }
 
-                     MultiPlayer player = getPlayer(username);
-                    if(player!=null) {
-                        if (input.startsWith("KEY_PRESSED;")) {
-                            keyPressed(player, Integer.parseInt(input.split(";")[1]));
-                        } else if (input.startsWith("KEY_RELEASED;")) {
-                            keyReleased(player, Integer.parseInt(input.split(";")[1]));
-                        }
-                    }
-                }
-            } catch (IOException e) {
-                logger.log(Level.WARNING, "IO exception handling client: " + e.getMessage(), e); // 记录处理客户端时的IO异常
-            } finally {
-                closeResources(); // 确保资源被正确释放
+            try {
+                authExecutor.execute(() -> {
+                    login.run();
+                    loginTimes.record(System.nanoTime() - received);
+                });
+            } catch (RejectedExecutionException e) {
+                logger.warning("Login queue full, rejecting " + username + " from " + out.getRemoteAddress());
+                out.send("ERROR;Server busy, please retry"); // 登录排队已满
+                out.closeAfterFlush();
             }
         }
 
@@ -385,24 +310,28 @@ public class Server implements ActionListener {
             try {
                 if (validateUser(username, password)) { // 验证用户
                     synchronized (rooms) {
+                        if (!out.isOpen()) {
+                            return false; // 登录期间客户端已断开
+                        }
                         if (rooms.containsKey(room)) {
-                            out.println("ERROR;Room already exists"); // 如果房间已存在，向客户端发送错误消息
+                            out.send("ERROR;Room already exists"); // 如果房间已存在，向客户端发送错误消息
                         } else {
-                            rooms.put(room, ConcurrentHashMap.newKeySet()); // 创建新房间
-                            rooms.get(room).add(out); // 添加客户端的输出流到房间
+                            engine = new RoomEngine(room, tickPool, matchStore); // 创建新房间
+                            rooms.put(room, engine);
+                            engine.addConnection(out); // 添加客户端的连接到房间
 
                             addPlayer(username);
-                            out.println("GAME_STARTED"); //主机进入
+                            out.send("GAME_STARTED"); //主机进入
 
                             return true;
                         }
                     }
                 } else {
-                    out.println("ERROR;Invalid username or password"); // 如果用户名或密码无效，向客户端发送错误消息
+                    out.send("ERROR;Invalid username or password"); // 如果用户名或密码无效，向客户端发送错误消息
                 }
             } catch (SQLException e) {
                 logger.log(Level.SEVERE, "Database error: " + e.getMessage(), e); // 记录数据库错误
-                out.println("ERROR;Database error");
+                out.send("ERROR;Database error");
             }
 
             return  false;
@@ -418,33 +347,36 @@ public class Server implements ActionListener {
             try {
                 if (validateUser(username, password)) { // 验证用户
                     synchronized (rooms) {
-                        if (!rooms.containsKey(room)) {
-                            out.println("ERROR;Room does not exist"); // 如果房间不存在，向客户端发送错误消息
+                        if (!out.isOpen()) {
+                            return false; // 登录期间客户端已断开
+                        }
+                        RoomEngine existing = rooms.get(room);
+                        if (existing == null) {
+                            out.send("ERROR;Room does not exist"); // 如果房间不存在，向客户端发送错误消息
                         } else {
-                            if(getMultiPlayer(username) != null){
-                                out.println("ERROR;Username already exists: "+username);
+                            if(existing.getPlayer(username) != null){
+                                out.send("ERROR;Username already exists: "+username);
                                 return false;
                             }
 
-                            rooms.get(room).add(out); // 将客户端添加到房间
+                            engine = existing;
+                            engine.addConnection(out); // 将客户端添加到房间
                             addPlayer(username);
 
-                            out.println("GAME_STARTED"); //从机进入
+                            out.send("GAME_STARTED"); //从机进入
 
                             //如果房间加入其它玩家, 则开始游戏
-                            if(!started) {
-                                startGame();
-                            }
+                            engine.startGame();
 
                             return true;
                         }
                     }
                 } else {
-                    out.println("ERROR;Invalid username or password"); // 如果用户名或密码无效，向客户端发送错误消息
+                    out.send("ERROR;Invalid username or password"); // 如果用户名或密码无效，向客户端发送错误消息
                 }
             } catch (SQLException e) {
                 logger.log(Level.SEVERE, "Database error: " + e.getMessage(), e); // 记录数据库错误
-                out.println("ERROR;Database error");
+                out.send("ERROR;Database error");
             }
 
             return false;
@@ -452,12 +384,9 @@ public class Server implements ActionListener {
 
 
         private void addPlayer(String username){
-            out.println("SUCCESS");
+            out.send("SUCCESS");
             // 向房间内的所有客户端广播新用户加入的消息
-            int x = players.size() * 80;
-            int y = 500;
-            players.add(new MultiPlayer(x,y,username,0));
-            broadcastMessage(room, "NEW_USER;" + username+";"+x+";"+y);
+            engine.addPlayer(username, out);
         }
 
         /**
@@ -469,63 +398,25 @@ public class Server implements ActionListener {
          * @throws SQLException 如果数据库操作失败
          */
         private boolean validateUser(String username, String password) throws SQLException {
-            String query = "SELECT password FROM users WHERE username = ?";
-            try (PreparedStatement stmt = dbConnection.prepareStatement(query)) {
-                stmt.setString(1, username);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getString("password").equals(password); // 比较密码
-                    } else {
-                        return false; // 用户名不存在
-                    }
-                }
-            }
+            return userStore.authenticate(username, password); // 比较密码哈希（在登录线程上计算）
         }
 
 
 
         /**
-         * 关闭资源，确保连接正确关闭
+         * 关闭资源，把客户端从所在房间移除
          */
         private void closeResources() {
             synchronized (rooms) {
-                if (out != null && room != null) {
-                    Set<PrintWriter> writers = rooms.get(room);
-                    if (writers != null) {
-                        writers.remove(out);
-                        if (writers.isEmpty()) {
-                            rooms.remove(room); // 如果房间为空，则删除房间
-                        }
+                if (engine != null) {
+                    engine.removeConnection(out);
+                    engine.removePlayer(this.username);
+                    if (engine.isEmpty()) {
+                        rooms.remove(room, engine); // 如果房间为空，则删除房间
+                        engine.shutdown();
                     }
                 }
-
-                if(this.username!=null) {
-                    MultiPlayer player =  getMultiPlayer(this.username);
-                    players.remove(player);
-                }
-            }
-            try {
-                socket.close(); // 关闭套接字
-            } catch (IOException e) {
-                logger.log(Level.WARNING, "Error closing socket: " + e.getMessage(), e); // 记录关闭套接字时的异常
-            }finally {
-                if(rooms.isEmpty()){
-                    players.clear();
-                    enemies.clear();
-                    bullets.clear();
-                    rewards.clear();
-                }
             }
         }
     }
-
-    private MultiPlayer getMultiPlayer(String username) {
-        for(MultiPlayer player:players){
-            if(player.getUsername().equals(username)){
-                return player;
-            }
-        }
-
-        return null;
-    }
 }
@@ -0,0 +1,162 @@
+package com.ex.airplane.Server;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 服务器整体的运行指标：连接数、房间数、tick 线程的步长耗时、登录耗时、对局结果的写入情况和出站排队深度。
+ * 除登录耗时外都在读取时从 {@link NioServer}、{@link TickPool}、{@link MatchStore} 和房间表现取，不增加热路径上的开销。
+ */
+public class ServerStats implements ServerStatsMBean {
+    private static final Logger logger = Logger.getLogger(ServerStats.class.getName()); // 日志记录器
+
+    private final NioServer nioServer; // 网络层
+    private final TickPool tickPool; // tick 线程池
+    private final Map<String, RoomEngine> rooms; // 房间表
+    private final Histogram loginTimes; // 登录耗时
+    private final MatchStore matchStore; // 对局结果存储
+
+    public ServerStats(NioServer nioServer, TickPool tickPool, Map<String, RoomEngine> rooms, Histogram loginTimes, MatchStore matchStore) {
+        this.nioServer = nioServer;
+        this.tickPool = tickPool;
+        this.rooms = rooms;
+        this.loginTimes = loginTimes;
+        this.matchStore = matchStore;
+    }
+
+    /**
+     * 注册为 JMX MBean，失败时只记录日志。
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("com.ex.airplane:type=Server"));
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Cannot register server metrics: " + e.getMessage(), e);
+        }
+    }
+
+    Collection<ClientConnection> getConnections() {
+        return nioServer.getConnections();
+    }
+
+    Map<String, RoomEngine> getRooms() {
+        return rooms;
+    }
+
+    TickPool getTickPool() {
+        return tickPool;
+    }
+
+    Histogram getLoginTimes() {
+        return loginTimes;
+    }
+
+    MatchStore getMatchStore() {
+        return matchStore;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return nioServer.getConnectionCount();
+    }
+
+    @Override
+    public int getActiveRooms() {
+        return rooms.size();
+    }
+
+    @Override
+    public double getStepP50Micros() {
+        return RoomStats.micros(tickPool.getStepTimes().snapshot().getP50());
+    }
+
+    @Override
+    public double getStepP99Micros() {
+        return RoomStats.micros(tickPool.getStepTimes().snapshot().getP99());
+    }
+
+    @Override
+    public double getStepMaxMicros() {
+        return RoomStats.micros(tickPool.getStepTimes().snapshot().getMax());
+    }
+
+    @Override
+    public long getTickOverruns() {
+        return tickPool.getOverrunCount();
+    }
+
+    @Override
+    public long getCatchUpSteps() {
+        return tickPool.getCatchUpStepCount();
+    }
+
+    @Override
+    public long getDroppedSteps() {
+        return tickPool.getDroppedStepCount();
+    }
+
+    @Override
+    public long getLoginCount() {
+        return loginTimes.getCount();
+    }
+
+    @Override
+    public double getLoginP50Micros() {
+        return RoomStats.micros(loginTimes.snapshot().getP50());
+    }
+
+    @Override
+    public double getLoginP99Micros() {
+        return RoomStats.micros(loginTimes.snapshot().getP99());
+    }
+
+    @Override
+    public double getLoginMaxMicros() {
+        return RoomStats.micros(loginTimes.snapshot().getMax());
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (ClientConnection connection : nioServer.getConnections()) {
+            max = Math.max(max, connection.getQueueDepth());
+        }
+        return max;
+    }
+
+    @Override
+    public long getTotalQueueDepth() {
+        long total = 0;
+        for (ClientConnection connection : nioServer.getConnections()) {
+            total += connection.getQueueDepth();
+        }
+        return total;
+    }
+
+    @Override
+    public int getPendingMatchWrites() {
+        return matchStore.getPendingCount();
+    }
+
+    @Override
+    public long getWrittenMatches() {
+        return matchStore.getWrittenCount();
+    }
+
+    @Override
+    public long getDroppedMatches() {
+        return matchStore.getDroppedCount();
+    }
+
+    @Override
+    public String[] getQueueDepths() {
+        return nioServer.getConnections().stream()
+                .map(connection -> connection.getRemoteAddress() + "=" + connection.getQueueDepth())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ex.airplane.Server;
+
+/**
+ * 服务器整体的运行指标（JMX 接口），对象名为 {@code com.ex.airplane:type=Server}。
+ * 耗时为最近约一到两分钟内的分布，单位微秒。
+ */
+public interface ServerStatsMBean {
+    int getConnectionCount();
+
+    int getActiveRooms();
+
+    /**
+     * tick 线程每一步（驱动其全部房间）的耗时。
+     */
+    double getStepP50Micros();
+
+    double getStepP99Micros();
+
+    double getStepMaxMicros();
+
+    long getTickOverruns();
+
+    /**
+     * 因 tick 线程落后而在一轮中额外执行的步数，持续增长说明 tick 线程跟不上步长。
+     */
+    long getCatchUpSteps();
+
+    long getDroppedSteps();
+
+    long getLoginCount();
+
+    /**
+     * 登录耗时：从收到第一条消息到登录处理完成，包括在登录线程排队的时间。
+     */
+    double getLoginP50Micros();
+
+    double getLoginP99Micros();
+
+    double getLoginMaxMicros();
+
+    int getMaxQueueDepth();
+
+    long getTotalQueueDepth();
+
+    /**
+     * 等待写入数据库的对局结果数。
+     */
+    int getPendingMatchWrites();
+
+    long getWrittenMatches();
+
+    long getDroppedMatches();
+
+    /**
+     * 每个连接的出站排队深度，格式为“客户端地址=深度”。
+     */
+    String[] getQueueDepths();
+}
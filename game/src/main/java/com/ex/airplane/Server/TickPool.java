@@ -0,0 +1,236 @@
+package com.ex.airplane.Server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * tick 线程池：少量线程（默认等于 CPU 核数）共同驱动所有房间引擎。
+ * 每个房间固定由一个线程驱动，线程之间按实测的 tick 耗时定期做负载均衡。
+ * 每个线程用 {@link FixedStepClock} 按固定步长推进，不依赖 AWT/Swing，可在 headless 环境运行。
+ */
+public class TickPool {
+    private static final Logger logger = Logger.getLogger(TickPool.class.getName()); // 日志记录器
+
+    private static final int REBALANCE_INTERVAL_TICKS = 250; // 每隔多少个 tick 做一次负载均衡（约 5 秒）
+    private static final int MAX_MOVES_PER_REBALANCE = 4; // 每次负载均衡最多迁移的房间数
+    private static final double COST_SMOOTHING = 0.1; // tick 耗时滑动平均的权重
+    private static final int MAX_CATCH_UP_STEPS = 5; // 落后时单轮最多追赶的步数
+
+    private final Worker[] workers; // tick 线程
+    private final long periodNanos; // tick 周期（纳秒）
+    private final Histogram stepTimes = new Histogram(); // 每个线程每一步（驱动其全部房间）的耗时
+
+    public TickPool(int threads, int periodMillis) {
+        this.periodNanos = periodMillis * 1_000_000L;
+        this.workers = new Worker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+            Thread thread = new Thread(workers[i], "room-tick-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * 把房间交给当前负载最轻的 tick 线程。
+     */
+    public synchronized void schedule(RoomEngine engine) {
+        if (engine.owner != null) {
+            return;
+        }
+        Worker worker = lightestWorker();
+        engine.owner = worker;
+        worker.engines.add(engine);
+    }
+
+    /**
+     * 停止驱动房间。
+     */
+    public synchronized void unschedule(RoomEngine engine) {
+        Worker worker = engine.owner;
+        engine.owner = null;
+        if (worker != null) {
+            worker.engines.remove(engine);
+        }
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /**
+     * 单轮 tick 耗时超过一个步长的次数（所有线程合计）。
+     */
+    public long getOverrunCount() {
+        long total = 0;
+        for (Worker worker : workers) {
+            total += worker.overruns;
+        }
+        return total;
+    }
+
+    /**
+     * 因落后而额外追赶执行的步数（所有线程合计）。
+     */
+    public long getCatchUpStepCount() {
+        long total = 0;
+        for (Worker worker : workers) {
+            total += worker.clock.getCatchUpSteps();
+        }
+        return total;
+    }
+
+    /**
+     * 因超出追赶上限而丢弃的步数（所有线程合计）。
+     */
+    public long getDroppedStepCount() {
+        long total = 0;
+        for (Worker worker : workers) {
+            total += worker.clock.getDroppedSteps();
+        }
+        return total;
+    }
+
+    /**
+     * 每一步的耗时分布：一个线程依次驱动它负责的所有房间所用的时间，超过步长即会落后。
+     */
+    public Histogram getStepTimes() {
+        return stepTimes;
+    }
+
+    private Worker lightestWorker() {
+        Worker lightest = workers[0];
+        for (Worker worker : workers) {
+            long load = worker.load();
+            long lightestLoad = lightest.load();
+            if (load < lightestLoad || (load == lightestLoad && worker.engines.size() < lightest.engines.size())) {
+                lightest = worker;
+            }
+        }
+        return lightest;
+    }
+
+    /**
+     * 从负载最重的线程向最轻的线程迁移房间，直到无法再降低两者的差距。
+     */
+    synchronized void rebalance() {
+        for (int move = 0; move < MAX_MOVES_PER_REBALANCE; move++) {
+            Worker heaviest = workers[0];
+            Worker lightest = workers[0];
+            for (Worker worker : workers) {
+                if (worker.load() > heaviest.load()) heaviest = worker;
+                if (worker.load() < lightest.load()) lightest = worker;
+            }
+
+            long gap = heaviest.load() - lightest.load();
+            if (heaviest == lightest || gap <= 0) {
+                return;
+            }
+
+            // 选择耗时最接近差距一半的房间，迁移后两边都不会比原来的最重线程更重
+            RoomEngine candidate = null;
+            long bestDistance = Long.MAX_VALUE;
+            for (RoomEngine engine : heaviest.engines) {
+                long cost = engine.averageTickNanos;
+                if (cost <= 0 || cost >= gap) {
+                    continue;
+                }
+                long distance = Math.abs(gap / 2 - cost);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    candidate = engine;
+                }
+            }
+            if (candidate == null) {
+                return;
+            }
+
+            heaviest.engines.remove(candidate);
+            candidate.owner = lightest;
+            lightest.engines.add(candidate);
+        }
+    }
+
+    /**
+     * 单个 tick 线程，按固定周期依次驱动自己负责的房间。
+     */
+    final class Worker implements Runnable {
+        private final int index; // 线程编号
+        final List<RoomEngine> engines = new CopyOnWriteArrayList<>(); // 本线程负责的房间
+        final FixedStepClock clock = new FixedStepClock(periodNanos, MAX_CATCH_UP_STEPS); // 本线程的固定步长时钟
+        volatile long overruns; // 单轮耗时超过步长的次数
+        private long stepCount; // 本线程执行过的步数
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        /**
+         * 本线程的负载：所负责房间 tick 耗时之和（纳秒）。
+         */
+        long load() {
+            long load = 0;
+            for (RoomEngine engine : engines) {
+                load += engine.averageTickNanos;
+            }
+            return load;
+        }
+
+        @Override
+        public void run() {
+            clock.start(System.nanoTime());
+            while (!Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                int steps = clock.advance(start);
+                for (int i = 0; i < steps; i++) {
+                    step();
+                }
+
+                long now = System.nanoTime();
+                if (steps > 0 && now - start > periodNanos) {
+                    overruns++; // 本轮耗时超过一个步长
+                    if (clock.getDroppedSteps() > 0 && logger.isLoggable(Level.FINE)) {
+                        logger.fine("Tick thread " + index + " overran: " + (now - start) / 1000 + "us, dropped " + clock.getDroppedSteps() + " steps so far");
+                    }
+                }
+
+                long wait = clock.nanosUntilNextStep(now);
+                if (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                }
+            }
+        }
+
+        /**
+         * 执行一步：依次驱动本线程负责的所有房间。
+         */
+        private void step() {
+            long stepStart = System.nanoTime();
+            for (RoomEngine engine : engines) {
+                if (engine.owner != this) {
+                    continue; // 已被迁移到其它线程
+                }
+                long start = System.nanoTime();
+                try {
+                    engine.tick();
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Tick failed in room " + engine.getName() + ": " + e.getMessage(), e);
+                }
+                long cost = System.nanoTime() - start;
+                engine.averageTickNanos += (long) ((cost - engine.averageTickNanos) * COST_SMOOTHING);
+                engine.stats.tickTimes.record(cost);
+            }
+            if (!engines.isEmpty()) {
+                stepTimes.record(System.nanoTime() - stepStart);
+            }
+
+            stepCount++;
+            if (index == 0 && stepCount % REBALANCE_INTERVAL_TICKS == 0) {
+                rebalance();
+            }
+        }
+    }
+}
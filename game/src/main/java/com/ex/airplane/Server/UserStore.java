@@ -0,0 +1,95 @@
+package com.ex.airplane.Server;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * users 表的访问：建表、写入账号、验证登录。
+ * <p>
+ * 数据库操作都通过 {@link ConnectionPool} 借用连接并复用预编译语句，连接只在执行 SQL 时占用，
+ * 耗时的密码哈希在归还连接之后进行，因此连接数可以远小于并发登录数。线程安全。
+ */
+public class UserStore {
+    private static final Logger logger = Logger.getLogger(UserStore.class.getName()); // 日志记录器
+
+    private static final String FIND_PASSWORD = "SELECT password FROM users WHERE username = ?";
+    private static final String UPSERT_USER = "REPLACE INTO users(username, password) VALUES(?, ?)";
+    private static final String UPDATE_PASSWORD = "UPDATE users SET password = ? WHERE username = ? AND password = ?";
+
+    private final ConnectionPool pool; // 数据库连接池
+
+    public UserStore(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 创建 users 表（如果尚不存在）。password 列保存 {@link PasswordHasher} 的哈希。
+     */
+    public void createTables() throws SQLException {
+        try (ConnectionPool.Lease db = pool.borrow(); Statement stmt = db.getConnection().createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
+                    "username TEXT PRIMARY KEY," +
+                    "password TEXT NOT NULL" +
+                    ");");
+        }
+    }
+
+    /**
+     * 写入或覆盖一批账号，在同一个事务中完成。
+     *
+     * @param usernames 用户名
+     * @param password  所有账号共用的密码，只哈希一次（共用同一个盐，仅用于测试账号）
+     */
+    public void putUsers(Iterable<String> usernames, String password) throws SQLException {
+        String hash = PasswordHasher.hash(password);
+        try (ConnectionPool.Lease db = pool.borrow()) {
+            db.getConnection().setAutoCommit(false);
+            PreparedStatement stmt = db.prepare(UPSERT_USER);
+            for (String username : usernames) {
+                stmt.setString(1, username);
+                stmt.setString(2, hash);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            db.getConnection().commit();
+        }
+    }
+
+    /**
+     * 验证用户名和密码。耗时主要是密码哈希，应在登录线程池中调用。
+     * 旧版的明文密码或迭代次数过低的哈希在验证成功后升级为当前设置的哈希。
+     *
+     * @return 用户存在且密码正确时返回 true
+     * @throws SQLException 数据库操作失败
+     */
+    public boolean authenticate(String username, String password) throws SQLException {
+        String stored;
+        try (ConnectionPool.Lease db = pool.borrow()) {
+            PreparedStatement stmt = db.prepare(FIND_PASSWORD);
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                stored = rs.next() ? rs.getString("password") : null;
+            }
+        }
+
+        if (!PasswordHasher.verify(password, stored)) {
+            return false;
+        }
+        if (PasswordHasher.needsRehash(stored)) {
+            String hash = PasswordHasher.hash(password);
+            try (ConnectionPool.Lease db = pool.borrow()) {
+                PreparedStatement stmt = db.prepare(UPDATE_PASSWORD);
+                stmt.setString(1, hash);
+                stmt.setString(2, username);
+                stmt.setString(3, stored); // 期间密码被改过时不覆盖
+                if (stmt.executeUpdate() > 0) {
+                    logger.fine("Upgraded password hash for " + username);
+                }
+            }
+        }
+        return true;
+    }
+}
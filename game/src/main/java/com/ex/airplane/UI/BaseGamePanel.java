@@ -1,14 +1,21 @@
 package com.ex.airplane.UI;
 
 import com.ex.airplane.AudioPlayer;
-import com.ex.airplane.GameObject.Bullet;
-import com.ex.airplane.GameObject.Enemy;
-import com.ex.airplane.GameObject.Reward;
-import com.ex.airplane.ScoreManager;
-import com.ex.airplane.CollisionHandler;
+import com.ex.airplane.core.Bullet;
+import com.ex.airplane.core.Enemy;
+import com.ex.airplane.core.Reward;
+import com.ex.airplane.core.ScoreManager;
+import com.ex.airplane.core.CollisionHandler;
+import com.ex.airplane.core.Rules;
 import com.ex.airplane.multiplayer.MultiPlayer;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.ex.airplane.multiplayer.PlayerPrediction;
+import com.ex.airplane.protocol.Protocol;
+import com.ex.airplane.protocol.SnapshotDecoder;
+import com.ex.airplane.protocol.SnapshotHistory;
+import com.ex.airplane.protocol.WorldState;
+import com.ex.airplane.export.ExportFormat;
+import com.ex.airplane.export.ExportSource;
+import com.ex.airplane.export.ScoreExporter;
 
 import javax.sound.sampled.Clip;
 import javax.swing.*;
@@ -16,27 +23,44 @@ import java.awt.*;
 import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileOutputStream;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Queue;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.ArrayList;
 import java.io.File;
 
 /**
  * 游戏面板类，负责游戏的主要逻辑和绘制。
+ * <p>
+ * 多人模式下网络线程和绘制线程彼此不加锁：网络线程解码快照（history、decoder 只由它访问），
+ * 通过 {@link SnapshotExchange} 交出最新状态；绘制线程取走后插值并绘制（对象列表、插值缓冲区只由它访问）。
+ * 绘制线程默认是 EDT（Swing 定时重绘），调用 {@link #startActiveRendering(int)} 后是 {@link RenderLoop} 的线程。
+ * 本地玩家的预测同时被 EDT 上的按键和绘制线程使用，用它自己的锁保护，临界区只有几次整数运算。
  */
 public class BaseGamePanel extends JPanel implements ActionListener {
-    private JButton exportButton; // 导出最终成绩按钮
+    private JButton exportButton; // 导出最终成绩按钮（游戏结束后在 EDT 上创建）
     private AudioPlayer backgroundMusic;// 背景音乐
-    public static final int PANEL_WIDTH = 800; // 面板宽度
-    public static final int PANEL_HEIGHT = 600; // 面板高度
+    public static final int PANEL_WIDTH = Rules.WORLD_WIDTH; // 面板宽度
+    public static final int PANEL_HEIGHT = Rules.WORLD_HEIGHT; // 面板高度
     private static final int PLAYER_START_X = 400; // 玩家起始x位置
     private static final int PLAYER_START_Y = 500; // 玩家起始y位置
     private static final int ENEMY_SPAWN_INTERVAL = 1000; // 敌人生成间隔（毫秒）
     private static final int REWARD_SPAWN_INTERVAL = 5000; // 奖励生成间隔（毫秒）
+    private static final int SNAPSHOT_HISTORY = 64; // 保留的已收到快照数，与服务器的历史长度一致
+    private static final int SNAPSHOT_BUFFER = 32; // 插值缓冲区的快照数
+    private static final int INTERPOLATION_DELAY = Integer.getInteger("game.interpolationDelayMs", 100); // 插值延迟（毫秒）
 
     protected final Vector<Enemy> enemies = new Vector<>(); // 敌人列表
     protected final Vector<Bullet> bullets = new Vector<>(); // 子弹列表
@@ -44,11 +68,30 @@ public class BaseGamePanel extends JPanel implements ActionListener {
 
     protected final Vector<MultiPlayer> players = new Vector<>(); // 玩家列表
 
+    // 以上列表只在绘制线程上访问，按快照原地更新，对象循环复用
+    private final ClientEntities<Enemy> enemyEntities = new ClientEntities<>(enemies, () -> new Enemy(0, 0));
+    private final ClientEntities<Bullet> bulletEntities = new ClientEntities<>(bullets, () -> new Bullet(0, 0));
+    private final ClientEntities<Reward> rewardEntities = new ClientEntities<>(rewards, () -> new Reward(0, 0));
+    private final ClientEntities<MultiPlayer> playerEntities = new ClientEntities<>(players, () -> new MultiPlayer(0, 0, "", 0));
+
     protected final String username; //用户名
 
+    private volatile String[] playerNames = new String[16]; // 玩家编号 -> 用户名（由 NEW_USER 消息登记，写时复制）
+    private volatile int myId = -1; // 本地玩家的编号（由 NEW_USER 消息得知）
+    private final SnapshotHistory history = new SnapshotHistory(SNAPSHOT_HISTORY); // 最近收到的世界状态，作为增量快照的基准（网络线程）
+    private final SnapshotDecoder decoder = new SnapshotDecoder(); // 快照解码器（网络线程）
+    private final SnapshotExchange exchange = new SnapshotExchange(); // 网络线程向绘制线程交接最新状态
+    private final Queue<MultiPlayer> joinedPlayers = new ConcurrentLinkedQueue<>(); // NEW_USER 消息中的玩家，由绘制线程取出
+    private final PlayerPrediction prediction; // 本地玩家的预测状态（以自身为锁）
+    private final SnapshotBuffer snapshots = new SnapshotBuffer(SNAPSHOT_BUFFER, INTERPOLATION_DELAY); // 待显示的快照，按时间插值（绘制线程）
+    private RenderLoop renderLoop; // 主动绘制时的画布，为 null 时由 paintComponent 绘制（EDT）
+    private final StarField starField = new StarField(); // 星空背景（绘制线程）
+    private volatile boolean gameOver; // 是否已显示游戏结束的控件
+
     public BaseGamePanel(String username) { // 构造函数
         backgroundMusic = new AudioPlayer(getClass().getResource("/BGM.wav"));// 初始化背景音乐
         this.username = username;
+        this.prediction = new PlayerPrediction(username);
         setFocusable(true); // 设置面板可以获得键盘焦点
         setBackground(Color.BLACK); // 设置背景颜色
 
@@ -56,7 +99,7 @@ public class BaseGamePanel extends JPanel implements ActionListener {
 
     }
 
-    public synchronized boolean isMeAlive() {
+    public boolean isMeAlive() {
         for (MultiPlayer player : players){
             if (player.isAlive() && player.getUsername().equals(username)){
                 return true;
@@ -67,53 +110,117 @@ public class BaseGamePanel extends JPanel implements ActionListener {
 
 
 
-    public synchronized void parseGameObjects(String notifiedGameObjects){ // 解析服务器发来的游戏对象
-        final Vector<Enemy> enemies = new Vector<>(); // 敌人列表
-        final Vector<Bullet> bullets = new Vector<>(); // 子弹列表
-        final Vector<Reward> rewards = new Vector<>(); // 奖励列表
-        Vector<MultiPlayer> players = new Vector<>(); // 玩家列表
-
-        //player,username,x1,y2,score,alive;player,username,x1,y2,score,alive;enemy,x1,y2;reward,x1,y2;bullet:x1,y2;
-        String[] gameObjects = notifiedGameObjects.split(";");   // 分割字符串
-        for (String gameObject : gameObjects){   // 遍历游戏对象列表
-            if (gameObject.startsWith("player,")){
-                String[] playerInfo = gameObject.split(",");
-                String username = playerInfo[1];
-                int x = Integer.parseInt(playerInfo[2]);
-                int y = Integer.parseInt(playerInfo[3]);
-                int score = Integer.parseInt(playerInfo[4]);
-                boolean alive = Boolean.parseBoolean(playerInfo[5]);
-
-                players.add(new MultiPlayer(x,y,username,score, alive));
-           }else if (gameObject.startsWith("enemy,")){
-                String[] enemyInfo = gameObject.split(",");
-                int x = Integer.parseInt(enemyInfo[1]);
-                int y = Integer.parseInt(enemyInfo[2]);
-                enemies.add(new Enemy(x,y));
-            }
-            else if (gameObject.startsWith("reward,")){
-                String[] rewardInfo = gameObject.split(",");
-                int x = Integer.parseInt(rewardInfo[1]);
-                int y = Integer.parseInt(rewardInfo[2]);
-                rewards.add(new Reward(x,y));
-            }else if (gameObject.startsWith("bullet,")){
-                String[] bulletInfo = gameObject.split(",");
-                int x = Integer.parseInt(bulletInfo[1]);
-                int y = Integer.parseInt(bulletInfo[2]);
-                bullets.add(new Bullet(x,y));
-            }
+    /**
+     * 登记玩家编号对应的用户名，快照中只按编号引用玩家（网络线程调用）。
+     */
+    public void registerPlayerName(int id, String name) {
+        String[] names = Arrays.copyOf(playerNames, Math.max(id + 1, playerNames.length));
+        names[id] = name;
+        playerNames = names; // 整体替换，EDT 读到的总是完整的数组
+        if (name.equals(username)) {
+            myId = id;
+        }
+    }
+
+    /**
+     * 登记 NEW_USER 消息中的玩家，收到快照之前据此显示玩家（任意线程调用，绘制线程下一帧加入列表）。
+     */
+    protected void addPlayer(MultiPlayer player) {
+        joinedPlayers.add(player);
+    }
+
+    /**
+     * 把新加入的玩家按编号顺序放入列表（绘制线程）。
+     */
+    private void receiveJoinedPlayers() {
+        MultiPlayer player;
+        while ((player = joinedPlayers.poll()) != null) {
+            insertPlayer(player);
+        }
+    }
+
+    private void insertPlayer(MultiPlayer player) {
+        int index = 0;
+        while (index < players.size() && players.get(index).getId() < player.getId()) {
+            index++;
+        }
+        if (index == players.size() || players.get(index).getId() != player.getId()) {
+            players.add(index, player);
+        }
+    }
+
+    /**
+     * 记录本地玩家的一个输入并立即预测其结果。
+     *
+     * @return 发给服务器的输入序号
+     */
+    public int recordInput(int keyCode, boolean pressed) {
+        synchronized (prediction) {
+            return prediction.input(keyCode, pressed);
         }
+    }
 
+    private String playerName(int id) {
+        String name = id < playerNames.length ? playerNames[id] : null;
+        return name != null ? name : "#" + id;
+    }
 
-        this.players.clear();
-        this.enemies.clear();
-        this.rewards.clear();
-        this.bullets.clear();
+    /**
+     * 解析服务器发来的增量快照（网络线程调用），在对应的基准状态上应用后交给 EDT，绘制时再取出。
+     *
+     * @return 快照的 tick，调用方应向服务器确认；找不到基准时返回 -1，调用方应请求关键帧
+     */
+    public long parseGameObjects(ByteBuffer snapshot) throws IOException { // 解析服务器发来的游戏对象
+        WorldState state = decoder.decode(snapshot, history); // 结果已保存在 history 中
+        if (state == null) {
+            return -1;
+        }
+        exchange.publish(state, System.nanoTime());
+        return state.getTick();
+    }
+
+    /**
+     * 取走网络线程发布的最新状态放入插值缓冲区，并用它校正本地玩家的预测（其他对象按插值延迟显示，本地玩家不延迟）。
+     */
+    private void receiveWorldState() {
+        SnapshotExchange.Slot latest = exchange.take();
+        if (latest == null) {
+            return;
+        }
+        WorldState state = latest.getState();
+        snapshots.add(state, latest.getArrivalNanos());
+
+        WorldState.Table players = state.table(Protocol.TAG_PLAYER);
+        int me = myId >= 0 ? players.indexOf(myId) : -1;
+        if (me >= 0) {
+            synchronized (prediction) {
+                prediction.reconcile(players.x(me), players.y(me), players.alive(me), players.inputSeq(me));
+            }
+        }
+    }
 
-        this.players.addAll(players);
-        this.enemies.addAll(enemies);
-        this.rewards.addAll(rewards);
-        this.bullets.addAll(bullets);
+    /**
+     * 用插值得到的世界状态原地更新当前的游戏对象：已有对象只改位置，新对象取自回收的实例。
+     */
+    private void applyWorldState(WorldState state) {
+        WorldState.Table table = state.table(Protocol.TAG_PLAYER);
+        playerEntities.update(table);
+        for (int i = 0; i < table.size(); i++) {
+            MultiPlayer player = players.get(i);
+            player.setUsername(playerName(table.id(i)));
+            player.setScore(table.score(i));
+            if (table.id(i) == myId) {
+                synchronized (prediction) {
+                    if (prediction.isSynced()) {
+                        player.setX(prediction.getX()); // 本地玩家显示预测位置
+                        player.setY(prediction.getY());
+                    }
+                }
+            }
+        }
+        enemyEntities.update(state.table(Protocol.TAG_ENEMY));
+        bulletEntities.update(state.table(Protocol.TAG_BULLET));
+        rewardEntities.update(state.table(Protocol.TAG_REWARD));
     }
 
     /**
@@ -125,23 +232,49 @@ public class BaseGamePanel extends JPanel implements ActionListener {
 
 
     /**
-     * 绘制游戏界面，包括玩家、敌人、子弹、奖励以及分数显示。
+     * 改为主动绘制：在面板上铺一块 {@link RenderLoop} 画布，由绘制线程按帧率上限绘制，
+     * 不再需要定时 repaint（只在 EDT 调用）。
+     *
+     * @param maxFps 帧率上限
+     */
+    protected void startActiveRendering(int maxFps) {
+        renderLoop = new RenderLoop(this::renderScene, maxFps);
+        renderLoop.setBounds(0, 0, getWidth(), getHeight());
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (renderLoop != null) {
+                    renderLoop.setBounds(0, 0, getWidth(), getHeight()); // 画布始终铺满面板
+                }
+            }
+        });
+        add(renderLoop);
+    }
+
+    /**
+     * 绘制游戏界面。主动绘制时画面由绘制线程负责，这里只清空背景。
      */
     @Override
-    protected synchronized void paintComponent(Graphics g) {
+    protected void paintComponent(Graphics g) {
         super.paintComponent(g); // 调用父类的绘制方法
+        if (renderLoop == null) {
+            renderScene(g, getWidth(), getHeight());
+        }
+    }
 
-        g.setColor(Color.BLACK);
-        g.fillRect(0,0,getWidth(),getHeight());
-
-        // 画星空背景
-        g.setColor(Color.WHITE);
-        for (int i = 0; i < 100; i++) {
-            int x = (int) (Math.random() * getWidth());
-            int y = (int) (Math.random() * getHeight());
-            g.drawLine(x, y, x, y);
+    /**
+     * 绘制一帧，包括玩家、敌人、子弹、奖励以及分数显示（在绘制线程上调用）。
+     */
+    private void renderScene(Graphics g, int width, int height) {
+        receiveJoinedPlayers();
+        receiveWorldState(); // 不加锁，网络线程积压时只取最新一帧
+        WorldState view = snapshots.sample(System.nanoTime()); // 取出当前时刻应显示的状态
+        if (view != null) {
+            applyWorldState(view);
         }
 
+        starField.draw(g, width, height); // 画星空背景
+
         int aliveaccount = 0; // 存活玩家数量
         for (MultiPlayer player : players) {
             if (player.isAlive()) {
@@ -153,97 +286,100 @@ public class BaseGamePanel extends JPanel implements ActionListener {
 
         if (aliveaccount == 0) {   // 如果没有玩家存活，则显示游戏结束屏幕
             drawGameOverScreen(g); // 绘制游戏结束屏幕
-            backgroundMusic.stop(); // 停止背景音乐
-            exportButton.setVisible(true);
+            if (!players.isEmpty() && !gameOver) {
+                gameOver = true;
+                SwingUtilities.invokeLater(this::showGameOverControls); // 控件只能在 EDT 上创建
+            }
         }else {
             drawGameObjects(g); // 绘制游戏中的所有对象
         }
     }
 
+    /**
+     * 游戏结束：停止背景音乐并显示导出按钮，只执行一次（EDT）。
+     * 主动绘制时移除画布、停止绘制线程，结束画面是静止的，交回 paintComponent 绘制，按钮也才能显示在最上层。
+     */
+    private void showGameOverControls() {
+        backgroundMusic.stop(); // 停止背景音乐
+        if (renderLoop != null) {
+            remove(renderLoop); // 移除时绘制线程随之停止
+            renderLoop = null;
+        }
+
+        exportButton = new JButton("导出成绩"); // 导出成绩按钮
+        exportButton.setBounds(325, 100, 100, 50); // 设置按钮位置
+        exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {  //
+                exportScores();
+            }
+        });
+        add(exportButton);
+        revalidate();
+        repaint();
+    }
+
     /**
      * 绘制游戏结束屏幕，显示游戏结束文字、分数
      */
-    private synchronized void drawGameOverScreen(Graphics g) {  // 绘制游戏结束屏幕
+    private void drawGameOverScreen(Graphics g) {  // 绘制游戏结束屏幕
         g.setColor(Color.RED); // 设置游戏结束文字颜色
         g.drawString("Game Over", 300, 200); // 显示游戏结束
 
         int deltaY = 30;
 
-        //按分数排序
-        players.sort((p1,p2)-> p2.getScore() - p1.getScore() );
+        //按分数排序（排序副本，玩家列表需保持编号顺序供快照原地更新）
+        List<MultiPlayer> ranking = new ArrayList<>(players);
+        ranking.sort((p1,p2)-> p2.getScore() - p1.getScore() );
         int rank = 1;
         //显示表头
         g.drawString("排名    玩家       分数", 300, 250); // 显示分数
-        for(MultiPlayer player:players) {
+        for(MultiPlayer player:ranking) {
             g.drawString(rank + "         " + player.getUsername()+"     " + player.getScore(), 300, 250+deltaY); // 显示分数
 
             deltaY+=30; // 调整下一个玩家分数的显示位置
             rank++;
         }
 
-        exportButton = new JButton("导出成绩"); // 导出成绩按钮
-        exportButton.setBounds(325, 100, 100, 50); // 设置按钮位置
-        exportButton.setVisible(false);
-        exportButton.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {  //
-                exportScores();
-            }
-        });
-        add(exportButton);
-
         //暂时不支持Restart.
         //g.drawString("Press R to Restart", 350, 340); // 提示重新开始
         //g.drawString("Press E to Exit", 350, 360); // 提示可以退出
     }
 
     /**
-     * 导出玩家成绩到Excel文件。
+     * 导出玩家成绩：选择文件（.xlsx 或 .csv，默认目录见 {@link ScoreExporter#defaultDirectory()}），
+     * 在 EDT 上只复制成绩，写文件交给 {@link ExportWorker} 在后台执行，导出期间按钮不可用。
      */
     private void exportScores() {
         // 获取所有玩家并按成绩降序排序
         List<MultiPlayer> playersList = new ArrayList<>(players);   // 存储玩家的数组转化为列表
         playersList.sort(Comparator.comparingInt(MultiPlayer::getScore).reversed());
-
-        // 创建Excel工作簿和表格
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("《星际空战》得分表");
-
-        // 创建表头行
-        Row header = sheet.createRow(0);
-        header.createCell(0).setCellValue("用户名");
-        header.createCell(1).setCellValue("得分");
-
-        // 填充玩家数据
-        int rowNum = 1;
+        List<Object[]> rows = new ArrayList<>(playersList.size());
         for (MultiPlayer player : playersList) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(player.getUsername());
-            row.createCell(1).setCellValue(player.getScore());
+            rows.add(new Object[]{player.getUsername(), player.getScore()});
         }
 
-        // 定义文件路径
-        String filePath = "C:/GameScores/scores.xlsx";
-        File file = new File(filePath);
-
-        // 创建目录（如果不存在）
-        File parentDir = file.getParentFile();
-        if (!parentDir.exists()) {
-            parentDir.mkdirs(); // 创建目录
+        JFileChooser chooser = new JFileChooser(ScoreExporter.defaultDirectory().toFile());
+        chooser.setDialogTitle("导出成绩");
+        chooser.setSelectedFile(new File("scores-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "." + ExportFormat.XLSX.getExtension()));
+        FileNameExtensionFilter xlsx = new FileNameExtensionFilter("Excel 工作簿 (*.xlsx)", ExportFormat.XLSX.getExtension());
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("CSV 文件 (*.csv)", ExportFormat.CSV.getExtension());
+        chooser.addChoosableFileFilter(xlsx);
+        chooser.addChoosableFileFilter(csv);
+        chooser.setFileFilter(xlsx);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
-
-        // 将工作簿写入文件
-        try (FileOutputStream fileOut = new FileOutputStream(file)) {
-            workbook.write(fileOut); // 写入文件
-        } catch (IOException ex) {
-            ex.printStackTrace(); // 异常处理
-        } finally {
-            try {
-                workbook.close(); // 关闭工作簿
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+        File selected = chooser.getSelectedFile();
+        if (!xlsx.accept(selected) && !csv.accept(selected)) { // 没写扩展名时按所选的文件类型补上
+            ExportFormat format = chooser.getFileFilter() == csv ? ExportFormat.CSV : ExportFormat.XLSX;
+            selected = new File(selected.getPath() + "." + format.getExtension());
         }
+        Path file = selected.toPath();
+
+        exportButton.setEnabled(false);
+        ExportSource source = ExportSource.of("《星际空战》得分表", new String[]{"用户名", "得分"}, rows);
+        new ExportWorker(this, source, file, () -> exportButton.setEnabled(true)).execute();
     }
 
 
@@ -252,18 +388,18 @@ public class BaseGamePanel extends JPanel implements ActionListener {
     /**
      * 绘制游戏中的所有对象，包括敌人、子弹、奖励和分数显示。
      */
-    private synchronized void drawGameObjects(Graphics g) {
+    private void drawGameObjects(Graphics g) {
         // 绘制敌人
         for (Enemy enemy : enemies) {
-            enemy.draw(g);
+            SpriteCache.draw(g, enemy);
         }
         // 绘制子弹
         for (Bullet bullet : bullets) {
-            bullet.draw(g);
+            SpriteCache.draw(g, bullet);
         }
         // 绘制奖励
         for (Reward reward : rewards) {
-            reward.draw(g);
+            SpriteCache.draw(g, reward);
         }
         // 绘制分数
         int deltaX = 30;
@@ -0,0 +1,85 @@
+package com.ex.airplane.UI;
+
+import com.ex.airplane.core.GameObject;
+import com.ex.airplane.protocol.WorldState;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 客户端显示用的一类对象（敌人、子弹、奖励或玩家）的持久列表。
+ * <p>
+ * 每帧用世界状态中的一张表原地更新列表：仍存在的对象只更新位置，消失的对象回收到空闲池，
+ * 新出现的对象优先从空闲池取出，因此稳定运行时不创建对象。
+ * 列表与表一样按编号升序排列，调用后第 i 个对象对应表中的第 i 条记录。
+ * <p>
+ * 非线程安全，调用方负责同步。
+ *
+ * @param <T> 对象类型
+ */
+public class ClientEntities<T extends GameObject> {
+    private final List<T> objects; // 显示的对象列表（由面板持有）
+    private final Supplier<T> factory; // 空闲池为空时创建新对象
+    private final ArrayDeque<T> free = new ArrayDeque<>(); // 回收的对象
+
+    /**
+     * @param objects 要维护的列表，应只由本类修改
+     * @param factory 创建新对象，位置和编号随后会被覆盖
+     */
+    public ClientEntities(List<T> objects, Supplier<T> factory) {
+        this.objects = objects;
+        this.factory = factory;
+    }
+
+    /**
+     * 按表更新列表中的对象编号、位置和存活状态。
+     */
+    public void update(WorldState.Table table) {
+        // 第一遍：回收表中已没有的对象，其余对象保持顺序前移
+        int kept = 0, j = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            T object = objects.get(i);
+            while (j < table.size() && table.id(j) < object.getId()) {
+                j++;
+            }
+            if (j < table.size() && table.id(j) == object.getId()) {
+                objects.set(kept++, object);
+            } else {
+                free.push(object);
+            }
+        }
+        while (objects.size() > kept) {
+            objects.remove(objects.size() - 1);
+        }
+        while (objects.size() < table.size()) {
+            objects.add(null);
+        }
+
+        // 第二遍：从后向前把保留的对象放到新位置，空位用新对象填充（保留的对象是表的子序列，不会被覆盖）
+        int i = kept - 1;
+        for (j = table.size() - 1; j >= 0; j--) {
+            T object;
+            if (i >= 0 && objects.get(i).getId() == table.id(j)) {
+                object = objects.get(i--);
+            } else {
+                object = free.isEmpty() ? factory.get() : free.pop();
+                object.setId(table.id(j));
+            }
+            object.setX(table.x(j));
+            object.setY(table.y(j));
+            object.setAlive(table.alive(j));
+            objects.set(j, object);
+        }
+    }
+
+    /**
+     * 清空列表，对象回收到空闲池。
+     */
+    public void clear() {
+        for (T object : objects) {
+            free.push(object);
+        }
+        objects.clear();
+    }
+}
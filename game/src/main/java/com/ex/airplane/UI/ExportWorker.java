@@ -0,0 +1,93 @@
+package com.ex.airplane.UI;
+
+import com.ex.airplane.export.ExportSource;
+import com.ex.airplane.export.ScoreExporter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 在后台线程上执行导出，EDT 只负责显示进度对话框和结果。
+ * <p>
+ * 进度对话框在导出超过半秒时才弹出，点“取消”后导出在下一次报告进度时停止并删除临时文件。
+ * 结束后调用 onFinished（在 EDT 上），调用方可以借此重新启用导出按钮。
+ */
+public class ExportWorker extends SwingWorker<Long, Long> {
+    private static final Logger logger = Logger.getLogger(ExportWorker.class.getName()); // 日志记录器
+
+    private final Component parent; // 对话框的父组件
+    private final ExportSource source; // 要导出的数据
+    private final Path file; // 目标文件
+    private final Runnable onFinished; // 结束后的回调
+    private final long total; // 预计行数，未知时为 -1
+    private final ProgressMonitor monitor; // 进度对话框（只在 EDT 上访问）
+    private volatile boolean cancelRequested; // 是否点了取消（EDT 写入，后台线程读取）
+
+    public ExportWorker(Component parent, ExportSource source, Path file, Runnable onFinished) {
+        this.parent = parent;
+        this.source = source;
+        this.file = file;
+        this.onFinished = onFinished;
+        this.total = source.estimateRows();
+        monitor = new ProgressMonitor(parent, "正在导出到 " + file.getFileName(), "", 0, total > 0 ? (int) Math.min(total, Integer.MAX_VALUE) : 100);
+        monitor.setMillisToDecideToPopup(200);
+        monitor.setMillisToPopup(500);
+    }
+
+    @Override
+    protected Long doInBackground() throws Exception {
+        return ScoreExporter.export(source, file, new ScoreExporter.Progress() {
+            @Override
+            public void rowsWritten(long rows, long total) {
+                publish(rows); // 交给 EDT 更新对话框，多次报告会被合并
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelRequested || ExportWorker.this.isCancelled();
+            }
+        });
+    }
+
+    @Override
+    protected void process(List<Long> chunks) {
+        if (monitor.isCanceled()) {
+            cancelRequested = true;
+            return;
+        }
+        long rows = chunks.get(chunks.size() - 1);
+        monitor.setProgress(total > 0 ? (int) Math.min(rows, monitor.getMaximum() - 1) : (int) (rows / 1000 % 100));
+        monitor.setNote(rows + (total > 0 ? " / " + total : "") + " 行");
+    }
+
+    @Override
+    protected void done() {
+        monitor.close();
+        try {
+            long rows = get();
+            JOptionPane.showMessageDialog(parent, "已导出 " + rows + " 行到 " + file.toAbsolutePath(), "导出成绩", JOptionPane.INFORMATION_MESSAGE);
+        } catch (CancellationException e) {
+            logger.info("Export to " + file + " cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CancellationException) {
+                logger.info("Export to " + file + " cancelled");
+            } else {
+                logger.log(Level.WARNING, "Export to " + file + " failed: " + cause.getMessage(), cause);
+                JOptionPane.showMessageDialog(parent, "导出失败: " + cause.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (onFinished != null) {
+                onFinished.run();
+            }
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package com.ex.airplane.UI;
 
 import com.ex.airplane.AudioPlayer;
-import com.ex.airplane.GameObject.Bullet;
-import com.ex.airplane.GameObject.Enemy;
-import com.ex.airplane.GameObject.Reward;
-import com.ex.airplane.Player;
-import com.ex.airplane.ScoreManager;
-import com.ex.airplane.CollisionHandler;
+import com.ex.airplane.core.Bullet;
+import com.ex.airplane.core.Enemy;
+import com.ex.airplane.core.Reward;
+import com.ex.airplane.core.Player;
+import com.ex.airplane.core.ScoreManager;
+import com.ex.airplane.core.CollisionHandler;
+import com.ex.airplane.core.Rules;
 
 import javax.sound.sampled.Clip;
 import javax.swing.*;
@@ -22,8 +23,8 @@ import java.util.List;
  * 游戏面板类，负责游戏的主要逻辑和绘制。(供单机用)
  */
 public class GamePanel extends JPanel implements ActionListener {
-    public static final int PANEL_WIDTH = 800; // 面板宽度
-    public static final int PANEL_HEIGHT = 600; // 面板高度
+    public static final int PANEL_WIDTH = Rules.WORLD_WIDTH; // 面板宽度
+    public static final int PANEL_HEIGHT = Rules.WORLD_HEIGHT; // 面板高度
     private static final int PLAYER_START_X = 400; // 玩家起始x位置
     private static final int PLAYER_START_Y = 500; // 玩家起始y位置
     private static final int ENEMY_SPAWN_INTERVAL = 1000; // 敌人生成间隔（毫秒）
@@ -35,6 +36,7 @@ public class GamePanel extends JPanel implements ActionListener {
     private final List<Enemy> enemies = new ArrayList<>(); // 敌人列表
     private final List<Bullet> bullets = new ArrayList<>(); // 子弹列表
     private final List<Reward> rewards = new ArrayList<>(); // 奖励列表
+    private final StarField starField = new StarField(); // 星空背景（EDT）
 
     private final ScoreManager scoreManager = new ScoreManager(); // 分数管理器
     private Timer enemySpawnTimer; // 敌人生成计时器
@@ -146,16 +148,10 @@ public class GamePanel extends JPanel implements ActionListener {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g); // 调用父类的绘制方法
 
-        // 画星空背景
-        g.setColor(Color.WHITE);
-        for (int i = 0; i < 100; i++) {
-            int x = (int) (Math.random() * getWidth());
-            int y = (int) (Math.random() * getHeight());
-            g.drawLine(x, y, x, y);
-        }
+        starField.draw(g, getWidth(), getHeight()); // 画星空背景
 
         if (player.isAlive()) {
-            player.draw(g); // 绘制玩家
+            SpriteCache.draw(g, player); // 绘制玩家
             drawGameObjects(g); // 绘制游戏中的所有对象
         } else {
             drawGameOverScreen(g); // 绘制游戏结束屏幕
@@ -179,15 +175,15 @@ public class GamePanel extends JPanel implements ActionListener {
     private void drawGameObjects(Graphics g) {
         // 绘制敌人
         for (Enemy enemy : enemies) {
-            enemy.draw(g);
+            SpriteCache.draw(g, enemy);
         }
         // 绘制子弹
         for (Bullet bullet : bullets) {
-            bullet.draw(g);
+            SpriteCache.draw(g, bullet);
         }
         // 绘制奖励
         for (Reward reward : rewards) {
-            reward.draw(g);
+            SpriteCache.draw(g, reward);
         }
         // 绘制分数
         g.setColor(Color.WHITE); // 设置分数文字颜色
@@ -228,7 +224,7 @@ public class GamePanel extends JPanel implements ActionListener {
         @Override
         public void keyPressed(KeyEvent e) {
             if (player.isAlive()) {
-                player.getKeyAdapter(bullets).keyPressed(e); // 处理玩家按键事件
+                player.keyPressed(e.getKeyCode(), bullets); // 处理玩家按键事件
             } else if (e.getKeyCode() == KeyEvent.VK_R) {
                 restartGame(); // 处理重新开始游戏
             } else if (e.getKeyCode() == KeyEvent.VK_E) {
@@ -239,7 +235,7 @@ public class GamePanel extends JPanel implements ActionListener {
         @Override
         public void keyReleased(KeyEvent e) {
             if (player.isAlive()) {
-                player.getKeyAdapter(bullets).keyReleased(e); // 处理玩家按键释放事件
+                player.keyReleased(e.getKeyCode()); // 处理玩家按键释放事件
             }
         }
     }
@@ -1,6 +1,8 @@
 package com.ex.airplane.UI;
 
 import javax.swing.*;
+import com.ex.airplane.protocol.FrameReader;
+
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -19,7 +21,7 @@ public class MultiplayerDialog extends JDialog {
     private JTextField roomNumberField; // 房间号输入框
     private Socket socket; // 套接字
     private PrintWriter out; // 输出流
-    private BufferedReader in; // 输入流
+    private FrameReader in; // 输入流（按帧读取）
 
     private JFrame frame;
     /**
@@ -204,7 +206,8 @@ public class MultiplayerDialog extends JDialog {
             int port = Integer.parseInt(addressParts[1]);
             socket = new Socket(host, port); // 创建套接字连接
             out = new PrintWriter(socket.getOutputStream(), true); // 初始化输出流
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream())); // 初始化输入流
+            socket.setTcpNoDelay(true);
+            in = new FrameReader(socket.getInputStream()); // 初始化输入流
 
             // 发送加入或创建房间的消息
             if (createRoom) {
@@ -214,7 +217,7 @@ public class MultiplayerDialog extends JDialog {
             }
 
             // 接收服务器响应
-            String response = in.readLine();
+            String response = in.readText();
             if (response.startsWith("ERROR;")) {
                 // 处理错误消息
                 String errorMessage = response.substring("ERROR;".length());
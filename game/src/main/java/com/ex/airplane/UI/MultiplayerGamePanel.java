@@ -2,6 +2,8 @@ package com.ex.airplane.UI;
 
 import com.ex.airplane.AudioPlayer;
 import com.ex.airplane.multiplayer.MultiPlayer;
+import com.ex.airplane.protocol.FrameReader;
+import com.ex.airplane.protocol.Protocol;
 
 import javax.sound.sampled.Clip;
 import javax.swing.*;
@@ -10,9 +12,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * MultiplayerGamePanel 类表示多人游戏模式下的游戏面板(以BaseGamePanel为父类)。
@@ -22,19 +25,21 @@ public class MultiplayerGamePanel extends BaseGamePanel {
 
      // 用户名
     private final Socket socket; // 套接字
-    private final BufferedReader in; // 输入流
+    private final FrameReader in; // 输入流（按帧读取）
     private final PrintWriter out; // 输出流
     private Timer timer; // 定时器
+    private ByteBuffer pendingSnapshot = ByteBuffer.allocate(4096); // 网络线程积压时暂存的最新快照内容
+    private boolean hasPendingSnapshot; // 是否有待解析的快照（只由网络线程访问）
 
     /**
      * 构造函数，初始化多人游戏面板。
      *
      * @param username 用户名
      * @param socket   套接字
-     * @param in       输入流
+     * @param in       输入流（按帧读取）
      * @param out      输出流
      */
-    public MultiplayerGamePanel(String username, Socket socket, BufferedReader in, PrintWriter out) {
+    public MultiplayerGamePanel(String username, Socket socket, FrameReader in, PrintWriter out) {
         super(username); // 调用 MultiplayerGamePanel 的构造函数
         this.socket = socket;
         this.in = in;
@@ -49,12 +54,14 @@ public class MultiplayerGamePanel extends BaseGamePanel {
             public void run(){
                 try {
                     while(true) {
-                        String message = in.readLine(); // 读取服务器发送的消息
-                        if (message != null) {
-                            System.out.println(":: " + message);
-
-                            onMessage(message);
-
+                        readFrame(); // 阻塞等待服务器发送的消息
+                        while (in.available() > 0) {
+                            readFrame(); // 已到达的帧全部读完，积压的快照只保留最新一帧
+                        }
+                        if (hasPendingSnapshot) {
+                            hasPendingSnapshot = false;
+                            long tick = parseGameObjects(pendingSnapshot); // 解析游戏对象
+                            out.println(tick >= 0 ? "ACK;" + tick : "RESYNC;"); // 确认快照，找不到基准时请求关键帧
                         }
                     }
                 } catch (Exception ex) {
@@ -63,29 +70,57 @@ public class MultiplayerGamePanel extends BaseGamePanel {
             }
         }.start();
 
-        // 初始化定时器，处理服务器消息
-        timer = new Timer(10, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                repaint(); // 重新绘制面板
-            }
-        });
-        timer.start(); // 启动定时器
+        if (RenderLoop.ENABLED) {
+            startActiveRendering(RenderLoop.MAX_FPS); // 主动绘制（-Dgame.activeRendering=true，帧率上限 -Dgame.maxFps）
+        } else {
+            // 初始化定时器，处理服务器消息
+            timer = new Timer(10, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    repaint(); // 重新绘制面板
+                }
+            });
+            timer.start(); // 启动定时器
+        }
 
         startGame();
 
     }
 
 
-    private synchronized void onMessage(String message){
+    /**
+     * 读取一帧：文本消息立即处理，快照先暂存，被更新的快照覆盖的旧快照不再解析。
+     * 跳过的快照不会被确认，服务器继续以已确认的旧快照为基准，因此跳过是安全的。
+     */
+    private void readFrame() throws IOException {
+        byte type = in.readFrame(); // 读取服务器发送的消息
+        if (type == Protocol.FRAME_SNAPSHOT) {
+            ByteBuffer payload = in.getPayload(); // 下一次读取时会被覆盖，需要复制
+            if (payload.remaining() > pendingSnapshot.capacity()) {
+                pendingSnapshot = ByteBuffer.allocate(Math.max(payload.remaining(), pendingSnapshot.capacity() * 2));
+            }
+            pendingSnapshot.clear();
+            pendingSnapshot.put(payload).flip();
+            hasPendingSnapshot = true;
+        } else if (type == Protocol.FRAME_TEXT) {
+            String message = in.getText();
+            System.out.println(":: " + message);
+
+            onMessage(message);
+        }
+    }
+
+    private void onMessage(String message){
         String[] parts = message.split(";"); // 分割消息字符串
         if ("NEW_USER".equals(parts[0])) {
             String newUserName = parts[1]; // 获取新用户的用户名
             int x = Integer.parseInt(parts[2]);
             int y = Integer.parseInt(parts[3]);
-            players.add(new MultiPlayer(x, y, newUserName, 0));
-        }else if (message.startsWith("player")) {
-            parseGameObjects(message); // 解析游戏对象
+            int id = Integer.parseInt(parts[4]);
+            registerPlayerName(id, newUserName);
+            MultiPlayer player = new MultiPlayer(x, y, newUserName, 0);
+            player.setId(id);
+            addPlayer(player); // 由绘制线程在下一帧加入玩家列表
         }else if(message.startsWith("GAME-OVER")) {
              // 游戏结束(该部分逻辑已在BaseGamePanel中实现)
         }
@@ -98,20 +133,22 @@ public class MultiplayerGamePanel extends BaseGamePanel {
         @Override
         public void keyPressed(KeyEvent e) {  // 按键按下事件
             if(out != null) {
-                out.println("KEY_PRESSED;"+e.getKeyCode());
+                int seq = recordInput(e.getKeyCode(), true); // 本地立即预测，服务器确认后校正
+                out.println("KEY_PRESSED;"+e.getKeyCode()+";"+seq);
             }
         }
 
         @Override
         public void keyReleased(KeyEvent e) {  // 按键释放事件
             if(out != null) {
-                out.println("KEY_RELEASED;"+e.getKeyCode());
+                int seq = recordInput(e.getKeyCode(), false);
+                out.println("KEY_RELEASED;"+e.getKeyCode()+";"+seq);
             }
         }
     }
 
     @Override
-    protected synchronized void paintComponent(Graphics g) {
+    protected void paintComponent(Graphics g) {
         super.paintComponent(g); // 调用父类的 paintComponent 方法
     }
 
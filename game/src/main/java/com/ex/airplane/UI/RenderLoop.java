@@ -0,0 +1,182 @@
+package com.ex.airplane.UI;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 主动绘制：在独立的绘制线程上按固定帧率把场景画到 {@link Canvas} 的 {@link BufferStrategy} 中，
+ * 不经过 Swing 的 repaint 合并，也不占用 EDT。
+ * <p>
+ * 每帧的截止时间按帧间隔递推：距截止时间较远时先休眠，最后一小段用 {@link Thread#yield()} 等待，
+ * 兼顾精度和 CPU 占用；落后超过一帧时不追帧，从当前时间重新计时，并计为一次迟到。
+ * 帧数、绘制耗时和迟到次数定期以 FINE 级别写入日志，绘制线程退出时再以 INFO 级别输出一次汇总。
+ */
+public class RenderLoop extends Canvas implements Runnable {
+    private static final Logger logger = Logger.getLogger(RenderLoop.class.getName());
+
+    public static final boolean ENABLED = Boolean.getBoolean("game.activeRendering"); // 是否启用主动绘制
+    public static final int MAX_FPS = Math.max(1, Integer.getInteger("game.maxFps", 60)); // 帧率上限
+
+    private static final long SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(2); // 截止前改为 yield 等待的时长（休眠精度约 1~2 毫秒）
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(5); // 输出统计日志的间隔
+
+    /**
+     * 每帧绘制的场景，在绘制线程上调用。
+     */
+    public interface Scene {
+        void render(Graphics2D g, int width, int height);
+    }
+
+    private final Scene scene; // 绘制的场景
+    private final long frameNanos; // 帧间隔
+    private volatile boolean running; // 绘制线程是否继续运行
+    private Thread thread; // 绘制线程（只在 EDT 上启动和停止）
+
+    // 计数器只由绘制线程访问
+    private long frames; // 已绘制的帧数
+    private long lateFrames; // 迟到超过一帧的次数
+    private long maxFrameNanos; // 最大绘制耗时
+    private long averageFrameNanos; // 绘制耗时的滑动平均
+
+    /**
+     * @param scene  每帧绘制的场景
+     * @param maxFps 帧率上限
+     */
+    public RenderLoop(Scene scene, int maxFps) {
+        this.scene = scene;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxFps);
+        setIgnoreRepaint(true); // 画面全部由绘制线程负责
+        setFocusable(false); // 键盘焦点留给外层面板
+        setBackground(Color.BLACK);
+    }
+
+    /**
+     * 加入可显示的容器后创建双缓冲并启动绘制线程。
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(2);
+        running = true;
+        thread = new Thread(this, "render-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 从容器移除前停止绘制线程，避免在本地资源释放后继续绘制。
+     */
+    @Override
+    public void removeNotify() {
+        stop();
+        super.removeNotify();
+    }
+
+    /**
+     * 停止绘制线程并等待它退出。
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = getBufferStrategy();
+        long deadline = System.nanoTime();
+        long reportAt = deadline + REPORT_NANOS;
+        while (running) {
+            long start = System.nanoTime();
+            try {
+                renderFrame(strategy);
+            } catch (IllegalStateException e) {
+                logger.log(Level.FINE, "Render target lost: " + e.getMessage(), e); // 窗口关闭过程中可能发生
+                break;
+            }
+            recordFrame(System.nanoTime() - start);
+
+            deadline += frameNanos;
+            long now = System.nanoTime();
+            if (now - deadline > frameNanos) {
+                lateFrames++;
+                deadline = now; // 不追帧
+            }
+            if (!waitUntil(deadline)) {
+                break;
+            }
+            if (now >= reportAt) {
+                report();
+                reportAt = now + REPORT_NANOS;
+            }
+        }
+        if (frames > 0) {
+            logger.info(summary()); // 退出时的汇总，迟到次数多说明帧率上限设得过高或场景绘制太慢
+        }
+    }
+
+    private void renderFrame(BufferStrategy strategy) {
+        int width = getWidth(), height = getHeight();
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    scene.render(g, width, height);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync(); // 部分平台（X11）需要立即刷新
+    }
+
+    /**
+     * 等到截止时间：先休眠到截止前约 {@link #SPIN_NANOS}，余下的时间 yield 等待。
+     *
+     * @return 被中断时返回 false
+     */
+    private boolean waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > SPIN_NANOS) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining - SPIN_NANOS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        while (running && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        return running;
+    }
+
+    private void recordFrame(long nanos) {
+        frames++;
+        if (nanos > maxFrameNanos) {
+            maxFrameNanos = nanos;
+        }
+        averageFrameNanos = averageFrameNanos == 0 ? nanos : averageFrameNanos + (nanos - averageFrameNanos) / 16;
+    }
+
+    private void report() {
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(summary());
+        }
+    }
+
+    private String summary() {
+        return String.format("frames=%d late=%d avg=%.2fms max=%.2fms",
+                frames, lateFrames, averageFrameNanos / 1e6, maxFrameNanos / 1e6);
+    }
+}
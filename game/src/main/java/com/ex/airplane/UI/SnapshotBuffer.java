@@ -0,0 +1,159 @@
+package com.ex.airplane.UI;
+
+import com.ex.airplane.protocol.Protocol;
+import com.ex.airplane.protocol.WorldState;
+
+/**
+ * 客户端的快照插值缓冲区。
+ * <p>
+ * 服务器只以较低频率发送快照，且到达时间随网络抖动。缓冲区按到达时间估计服务器的 tick 时钟，
+ * 渲染时使用比估计值晚 {@code delay} 的时间点，在其前后两帧快照之间按编号对位置做线性插值；
+ * 最新快照之后的时间点按速度短暂外推，超过上限后停在外推终点，等待新的快照。
+ * <p>
+ * 缓冲区保存快照的副本（解码结果所在的历史槽位会被复用），副本和插值结果都循环使用，稳定运行时不分配对象。
+ * 非线程安全，调用方负责同步。
+ */
+public class SnapshotBuffer {
+    private static final double OFFSET_DECAY = 0.02; // 时钟偏移估计向较小值回落的速度
+    private static final long MAX_EXTRAPOLATION_NANOS = 250_000_000L; // 最长外推时间
+
+    private final WorldState[] states; // 按 tick 升序的环形缓冲区，元素循环复用
+    private final WorldState result = new WorldState(); // 插值结果，每次采样复用
+    private final long tickNanos; // 一个 tick 的时长（纳秒）
+    private final long delayNanos; // 插值延迟（纳秒）
+    private int head; // 最旧快照的位置
+    private int count; // 缓冲的快照数
+    private long offsetNanos; // 服务器 tick 时间 - 本地到达时间 的估计
+    private boolean synced; // 是否已有时钟偏移估计
+
+    /**
+     * @param capacity    缓冲的快照数
+     * @param delayMillis 插值延迟（毫秒），应大于快照间隔加上常见的网络抖动
+     */
+    public SnapshotBuffer(int capacity, int delayMillis) {
+        this.states = new WorldState[capacity];
+        for (int i = 0; i < capacity; i++) {
+            states[i] = new WorldState();
+        }
+        this.tickNanos = Protocol.TICK_MILLIS * 1_000_000L;
+        this.delayNanos = delayMillis * 1_000_000L;
+    }
+
+    /**
+     * 加入一帧新快照（tick 必须递增），内容被复制，调用方之后可以修改或复用 state。
+     *
+     * @param state        解码后的世界状态
+     * @param arrivalNanos 到达时间（{@link System#nanoTime()}）
+     */
+    public void add(WorldState state, long arrivalNanos) {
+        if (count > 0 && state.getTick() <= newest().getTick()) {
+            return;
+        }
+
+        // 到达越早说明网络延迟越小：偏移只在样本更大时立即跟上，否则缓慢回落，以吸收抖动和服务器停顿
+        long sample = state.getTick() * tickNanos - arrivalNanos;
+        if (!synced || sample > offsetNanos) {
+            offsetNanos = sample;
+            synced = true;
+        } else {
+            offsetNanos += (long) ((sample - offsetNanos) * OFFSET_DECAY);
+        }
+
+        if (count == states.length) {
+            head = (head + 1) % states.length;
+            count--;
+        }
+        states[(head + count) % states.length].copyFrom(state);
+        count++;
+    }
+
+    /**
+     * 计算当前时刻应该显示的世界状态。
+     *
+     * @param nowNanos 当前时间（{@link System#nanoTime()}）
+     * @return 插值或外推得到的状态，属于缓冲区，下一次调用本类方法前有效；尚未收到快照时返回 null
+     */
+    public WorldState sample(long nowNanos) {
+        if (count == 0) {
+            return null;
+        }
+
+        double renderTick = (double) (nowNanos + offsetNanos - delayNanos) / tickNanos;
+        WorldState oldest = states[head];
+        if (renderTick <= oldest.getTick()) {
+            return oldest;
+        }
+
+        for (int i = 1; i < count; i++) {
+            WorldState to = states[(head + i) % states.length];
+            if (renderTick < to.getTick()) {
+                WorldState from = states[(head + i - 1) % states.length];
+                return interpolate(from, to, renderTick, result);
+            }
+        }
+
+        WorldState newest = newest();
+        WorldState previous = count > 1 ? states[(head + count - 2) % states.length] : null;
+        double maxTicks = (double) MAX_EXTRAPOLATION_NANOS / tickNanos;
+        return extrapolate(previous, newest, Math.min(renderTick - newest.getTick(), maxTicks), result);
+    }
+
+    private WorldState newest() {
+        return states[(head + count - 1) % states.length];
+    }
+
+    /**
+     * 在两帧之间插值：两帧都有的对象插值位置，只在前一帧的对象按速度推进（即将消失），只在后一帧的对象尚未出现。
+     */
+    private static WorldState interpolate(WorldState from, WorldState to, double renderTick, WorldState result) {
+        double alpha = (renderTick - from.getTick()) / (to.getTick() - from.getTick());
+        double elapsed = renderTick - from.getTick();
+        result.reset((long) renderTick);
+        for (byte tag = Protocol.TAG_PLAYER; tag <= Protocol.TAG_REWARD; tag++) {
+            WorldState.Table a = from.table(tag), b = to.table(tag), out = result.table(tag);
+            int j = 0;
+            for (int i = 0; i < a.size(); i++) {
+                int id = a.id(i);
+                while (j < b.size() && b.id(j) < id) {
+                    j++;
+                }
+                int x, y;
+                if (j < b.size() && b.id(j) == id) {
+                    x = (int) Math.round(a.x(i) + (b.x(j) - a.x(i)) * alpha);
+                    y = (int) Math.round(a.y(i) + (b.y(j) - a.y(i)) * alpha);
+                } else {
+                    x = (int) Math.round(a.x(i) + a.vx(i) * elapsed);
+                    y = (int) Math.round(a.y(i) + a.vy(i) * elapsed);
+                }
+                out.add(id, x, y, a.vx(i), a.vy(i), a.score(i), a.alive(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 快照中断时从最新一帧向后推算：两帧都有的对象沿两帧之间的运动继续（玩家没有速度字段），其余按速度推进。
+     */
+    private static WorldState extrapolate(WorldState previous, WorldState newest, double ticks, WorldState result) {
+        result.reset(newest.getTick() + (long) ticks);
+        for (byte tag = Protocol.TAG_PLAYER; tag <= Protocol.TAG_REWARD; tag++) {
+            WorldState.Table a = previous != null ? previous.table(tag) : null, b = newest.table(tag), out = result.table(tag);
+            double span = previous != null ? newest.getTick() - previous.getTick() : 1;
+            int i = 0;
+            for (int j = 0; j < b.size(); j++) {
+                int id = b.id(j);
+                while (a != null && i < a.size() && a.id(i) < id) {
+                    i++;
+                }
+                double vx = b.vx(j), vy = b.vy(j);
+                if (a != null && i < a.size() && a.id(i) == id) {
+                    vx = (b.x(j) - a.x(i)) / span;
+                    vy = (b.y(j) - a.y(i)) / span;
+                }
+                out.add(id, (int) Math.round(b.x(j) + vx * ticks), (int) Math.round(b.y(j) + vy * ticks),
+                        b.vx(j), b.vy(j), b.score(j), b.alive(j));
+            }
+        }
+        return result;
+    }
+}
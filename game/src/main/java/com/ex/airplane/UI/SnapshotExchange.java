@@ -0,0 +1,64 @@
+package com.ex.airplane.UI;
+
+import com.ex.airplane.protocol.WorldState;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 网络线程向绘制线程（EDT 或主动绘制线程）交接最新世界状态的无锁三缓冲。
+ * <p>
+ * 三个槽位轮流使用：写入方在自己的槽位里写好状态后，用 {@link AtomicReference#getAndSet} 与中间槽位交换；
+ * 读取方发现中间槽位有新内容时同样交换取走。双方都不加锁、不等待对方，
+ * 读取方只看到最新发布的状态，来不及取走的旧状态被直接覆盖；槽位循环复用，不分配对象。
+ * <p>
+ * 只允许一个写入线程和一个读取线程。
+ */
+public class SnapshotExchange {
+    private final AtomicReference<Slot> middle = new AtomicReference<>(new Slot()); // 已发布、等待读取的槽位
+    private Slot back = new Slot(); // 写入方独占
+    private Slot front = new Slot(); // 读取方独占
+
+    /**
+     * 一份交接的状态，读取方取走后可以一直读到下一次 {@link #take()}。
+     */
+    public static final class Slot {
+        private final WorldState state = new WorldState(); // 世界状态的副本
+        private long arrivalNanos; // 快照到达时间
+        private volatile boolean fresh; // 是否为尚未取走的新内容
+
+        public WorldState getState() {
+            return state;
+        }
+
+        public long getArrivalNanos() {
+            return arrivalNanos;
+        }
+    }
+
+    /**
+     * 发布一份新状态（只由写入线程调用），内容被复制。
+     *
+     * @param state        解码后的世界状态
+     * @param arrivalNanos 快照到达时间（{@link System#nanoTime()}）
+     */
+    public void publish(WorldState state, long arrivalNanos) {
+        back.state.copyFrom(state);
+        back.arrivalNanos = arrivalNanos;
+        back.fresh = true;
+        back = middle.getAndSet(back); // 换回的槽位可能是读取方没来得及取走的旧状态，直接覆盖
+    }
+
+    /**
+     * 取走最新发布的状态（只由读取线程调用）。
+     *
+     * @return 上次调用之后发布的最新状态；没有新状态时返回 null
+     */
+    public Slot take() {
+        if (!middle.get().fresh) {
+            return null;
+        }
+        front = middle.getAndSet(front); // 只有写入方会放入新内容，换到的一定是最新发布的槽位
+        front.fresh = false;
+        return front;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ex.airplane.UI;
+
+import com.ex.airplane.core.GameObject;
+import com.ex.airplane.core.Sprite;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 进程内共享的精灵缓存。
+ * <p>
+ * 每张图片只在第一次使用本类时从类路径读取并解码一次，随后按 {@link Sprite} 的绘制尺寸预先缩放，
+ * 存成与屏幕 {@link GraphicsConfiguration} 兼容的图片，绘制时不再逐帧缩放和转换像素格式。
+ * 客户端启动时调用 {@link #preload()}，避免在第一帧游戏画面里加载。缓存只读，可被多个线程共享。
+ */
+public final class SpriteCache {
+    private static final Logger logger = Logger.getLogger(SpriteCache.class.getName());
+    private static final Image[] IMAGES = loadAll(); // 按 Sprite 序号存放的预缩放图片
+
+    private SpriteCache() {
+    }
+
+    /**
+     * 加载并缩放全部精灵。重复调用没有额外开销。
+     */
+    public static void preload() {
+        logger.fine("Loaded " + IMAGES.length + " sprites");
+    }
+
+    /**
+     * 以精灵的默认尺寸绘制。
+     */
+    public static void draw(Graphics g, Sprite sprite, int x, int y) {
+        g.drawImage(IMAGES[sprite.ordinal()], x, y, null);
+    }
+
+    /**
+     * 以指定尺寸绘制，尺寸与精灵的默认尺寸相同时不缩放。
+     */
+    public static void draw(Graphics g, Sprite sprite, int x, int y, int width, int height) {
+        if (width == sprite.getWidth() && height == sprite.getHeight()) {
+            draw(g, sprite, x, y);
+        } else {
+            g.drawImage(IMAGES[sprite.ordinal()], x, y, width, height, null);
+        }
+    }
+
+    /**
+     * 以对象自身的位置和尺寸绘制它的精灵，不存活的对象不绘制。
+     */
+    public static void draw(Graphics g, GameObject object) {
+        if (object.isAlive()) {
+            draw(g, object.getSprite(), object.getX(), object.getY(), object.getWidth(), object.getHeight());
+        }
+    }
+
+    private static Image[] loadAll() {
+        GraphicsConfiguration configuration = null;
+        if (!GraphicsEnvironment.isHeadless()) {
+            configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+        }
+
+        Sprite[] sprites = Sprite.values();
+        Image[] images = new Image[sprites.length];
+        for (Sprite sprite : sprites) {
+            images[sprite.ordinal()] = scale(read(sprite), sprite.getWidth(), sprite.getHeight(), configuration);
+        }
+        return images;
+    }
+
+    private static BufferedImage read(Sprite sprite) {
+        try (InputStream in = SpriteCache.class.getResourceAsStream(sprite.getResource())) {
+            if (in == null) {
+                throw new IllegalStateException("Missing sprite resource " + sprite.getResource());
+            }
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                throw new IllegalStateException("Unsupported sprite image " + sprite.getResource());
+            }
+            return image;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Error loading sprite " + sprite.getResource(), e);
+            throw new IllegalStateException("Error loading sprite " + sprite.getResource(), e);
+        }
+    }
+
+    /**
+     * 把原图高质量缩放到绘制尺寸，无显示设备时退回普通的 ARGB 图片。
+     */
+    private static Image scale(BufferedImage source, int width, int height, GraphicsConfiguration configuration) {
+        BufferedImage scaled = configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+}
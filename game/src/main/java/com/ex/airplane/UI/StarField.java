@@ -0,0 +1,126 @@
+package com.ex.airplane.UI;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预先绘制好的星空背景层。
+ * <p>
+ * 星星的位置和亮度由固定种子的随机数生成，画在一张显存中的 {@link VolatileImage} 上，每帧只需贴图，
+ * 不再逐帧生成随机数和画点，每一帧看到的都是同一片星空。显存内容丢失（切换显示模式、锁屏等）时按同一种子重画。
+ * <p>
+ * 滚动速度不为 0 时星空按时间向下循环滚动，与前景的移动形成视差，此时每帧贴两次图（上下两段）。
+ * <p>
+ * 非线程安全，只由绘制线程使用。
+ */
+public class StarField {
+    public static final long DEFAULT_SEED = 20240601L; // 默认星空的种子
+    public static final int DEFAULT_STARS = 100; // 默认星星数量
+    public static final int SCROLL_SPEED = Integer.getInteger("game.starScrollSpeed", 0); // 滚动速度（像素/秒），0 表示静止
+
+    private final long seed; // 星星位置的种子
+    private final int stars; // 星星数量
+    private final int scrollSpeed; // 滚动速度（像素/秒）
+    private final long startNanos = System.nanoTime(); // 滚动的起始时间
+    private VolatileImage layer; // 绘制好的星空
+
+    /**
+     * @param seed        星星位置的种子，相同种子和尺寸得到相同的星空
+     * @param stars       星星数量
+     * @param scrollSpeed 向下滚动的速度（像素/秒），0 表示静止
+     */
+    public StarField(long seed, int stars, int scrollSpeed) {
+        this.seed = seed;
+        this.stars = stars;
+        this.scrollSpeed = scrollSpeed;
+    }
+
+    /**
+     * 使用默认种子和星星数量，滚动速度取自 -Dgame.starScrollSpeed。
+     */
+    public StarField() {
+        this(DEFAULT_SEED, DEFAULT_STARS, SCROLL_SPEED);
+    }
+
+    /**
+     * 用星空填满 (0, 0, width, height) 区域，包括黑色底色。
+     */
+    public void draw(Graphics g, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        GraphicsConfiguration configuration = ((Graphics2D) g).getDeviceConfiguration();
+        int offset = scrollOffset(height);
+        do {
+            validate(configuration, width, height);
+            if (offset == 0) {
+                g.drawImage(layer, 0, 0, null);
+            } else {
+                // 图片下移 offset，移出底部的部分接到顶部
+                g.drawImage(layer, 0, offset, null);
+                g.drawImage(layer, 0, offset - height, null);
+            }
+        } while (layer.contentsLost());
+    }
+
+    /**
+     * 释放显存中的图片，下次绘制时重新创建。
+     */
+    public void flush() {
+        if (layer != null) {
+            layer.flush();
+            layer = null;
+        }
+    }
+
+    private int scrollOffset(int height) {
+        if (scrollSpeed == 0) {
+            return 0;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return (int) (elapsedMillis * scrollSpeed / 1000 % height);
+    }
+
+    /**
+     * 确保图片存在、尺寸正确且内容有效，必要时重新创建或重画。
+     */
+    private void validate(GraphicsConfiguration configuration, int width, int height) {
+        if (layer == null || layer.getWidth() != width || layer.getHeight() != height) {
+            createLayer(configuration, width, height);
+            return;
+        }
+        int status = layer.validate(configuration);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            createLayer(configuration, width, height);
+        } else if (status == VolatileImage.IMAGE_RESTORED) {
+            render(); // 内容已丢失，按同一种子重画
+        }
+    }
+
+    private void createLayer(GraphicsConfiguration configuration, int width, int height) {
+        flush();
+        layer = configuration.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+        render();
+    }
+
+    private void render() {
+        int width = layer.getWidth(), height = layer.getHeight();
+        Random random = new Random(seed); // 每次重画都从同一种子开始
+        Graphics2D g = layer.createGraphics();
+        try {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, width, height);
+            for (int i = 0; i < stars; i++) {
+                int x = random.nextInt(width);
+                int y = random.nextInt(height);
+                int brightness = 128 + random.nextInt(128); // 远近不同的星星亮度不同
+                g.setColor(new Color(brightness, brightness, brightness));
+                g.drawLine(x, y, x, y);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ex.airplane.core;
+
+/**
+ * 子弹类，负责子弹的属性和移动。
+ */
+public class Bullet extends GameObject {
+    public static final int WIDTH = 5; // 子弹宽度
+    public static final int HEIGHT = 10; // 子弹高度
+    public static final int SPEED = -2; // 每帧的纵向移动距离（向上）
+
+    //哪个玩家的子弹
+    private String username;
+
+    public Bullet(String username,int x, int y) {
+        this(x,y);
+
+        this.username = username;
+    }
+
+    public Bullet(int x, int y) {
+        this.x = x; // 设置子弹初始x位置
+        this.y = y; // 设置子弹初始y位置
+        width = WIDTH; // 设置子弹宽度
+        height = HEIGHT; // 设置子弹高度
+        vy = SPEED; // 子弹向上移动
+        sprite = Sprite.BULLET; // 子弹图片
+    }
+
+    @Override
+    public void move() {
+        y += vy; // 子弹向上移动
+        if (y < 0) setAlive(false); // 超出屏幕上边界，设置为不存活
+    }
+
+    /**
+     * 创建服务器端的子弹池，尺寸和离场规则与本类相同，池中的所属玩家记录玩家编号。
+     */
+    public static EntityPool createPool() {
+        return new EntityPool(WIDTH, HEIGHT, 0, Integer.MAX_VALUE);
+    }
+
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ex.airplane.core;
+
+import java.util.List;
+
+/**
+ * 碰撞处理类，负责检测并处理游戏中对象的碰撞。
+ * 相交判断直接比较坐标和尺寸（{@link GameObject#intersects(GameObject)}），
+ * 检测过程不创建 Rectangle 等对象；多人模式下敌人、子弹和奖励存放在 {@link EntityPool} 中，直接按下标访问。
+ */
+
+
+
+public class CollisionHandler {
+
+    /**
+     * 处理游戏中的所有碰撞。
+     * @param player 玩家对象
+     * @param enemies 敌人列表
+     * @param bullets 子弹列表
+     * @param rewards 奖励列表
+     * @param scoreManager 分数管理器
+     */
+
+    // 处理单机玩家与敌人、子弹、奖励的碰撞
+    public static void handleCollisions(Player player, List<Enemy> enemies, List<Bullet> bullets, List<Reward> rewards, ScoreManager scoreManager) {
+
+        for (Enemy enemy : enemies) {
+            if (player.intersects(enemy)) {
+                player.setAlive(false); // 玩家与敌人碰撞，玩家死亡
+
+
+            }
+            for (Bullet bullet : bullets) {
+                if (bullet.intersects(enemy)) {
+                    bullet.setAlive(false); // 子弹与敌人碰撞，子弹消失
+                    enemy.setAlive(false); // 敌人死亡
+
+                    scoreManager.incrementScore(); // 增加分数
+                }
+            }
+        }
+
+        // 处理玩家与奖励的碰撞
+        for (Reward reward : rewards) {
+            if (reward.isColliding(player)) {
+                rewards.remove(reward); // 移除被碰撞的奖励
+                scoreManager.incrementScore(); // 增加分数
+                break; // 假设一个奖励只触发一次
+            }
+        }
+    }
+
+
+    /**
+     * 处理房间内所有玩家与敌人、子弹、奖励的碰撞，每帧调用一次。
+     * <p>
+     * 先把敌人放入网格，子弹和玩家只与所在格子中的敌人做精确检测，开销随对象数线性增长。
+     * 结果与逐个玩家检测相同：每对相交的子弹和敌人都消失，子弹的主人（仍在房间内时）加一分；
+     * 与敌人相交的玩家死亡；玩家按顺序各自拾取第一个碰到的奖励。
+     * 对象只被标记为死亡，由调用方在本帧结束时统一移除。
+     *
+     * @param players 玩家列表
+     * @param enemies 敌人池
+     * @param bullets 子弹池，所属玩家为玩家编号
+     * @param rewards 奖励池
+     * @param grid    房间复用的网格
+     */
+    public static void handleCollisions(List<Ship> players, EntityPool enemies, EntityPool bullets, EntityPool rewards, SpatialGrid grid) {
+        grid.build(enemies);
+
+        int bulletWidth = bullets.getWidth(), bulletHeight = bullets.getHeight();
+        for (int b = 0; b < bullets.size(); b++) {
+            int x = bullets.x(b), y = bullets.y(b);
+            int candidates = grid.query(x, y, bulletWidth, bulletHeight);
+            for (int i = 0; i < candidates; i++) {
+                int enemy = grid.get(i);
+                if (enemies.intersects(enemy, x, y, bulletWidth, bulletHeight)) {
+                    bullets.kill(b); // 子弹与敌人碰撞，子弹消失
+                    enemies.kill(enemy); // 敌人死亡
+
+                    //子弹对应的玩家加分
+                    Ship owner = findPlayer(players, bullets.owner(b));
+                    if (owner != null) {
+                        owner.setScore(owner.getScore() + 1);// 增加分数
+                    }
+                }
+            }
+        }
+
+        for (Ship player : players) {
+            int x = player.getX(), y = player.getY(), width = player.getWidth(), height = player.getHeight();
+            int candidates = grid.query(x, y, width, height);
+            for (int i = 0; i < candidates; i++) {
+                if (enemies.intersects(grid.get(i), x, y, width, height)) {
+                    player.setAlive(false); // 玩家与敌人碰撞，玩家死亡
+                    break;
+                }
+            }
+
+            // 处理玩家与奖励的碰撞（奖励很少，直接遍历）
+            for (int r = 0; r < rewards.size(); r++) {
+                if (rewards.isAlive(r) && rewards.intersects(r, x, y, width, height)) {
+                    rewards.kill(r); // 被拾取的奖励消失
+                    player.setScore(player.getScore() + 1); // 增加分数
+                    break; // 假设一个奖励只触发一次
+                }
+            }
+        }
+    }
+
+    private static Ship findPlayer(List<Ship> players, int playerId) {
+        for (Ship player : players) {
+            if (player.getId() == playerId) {
+                return player;
+            }
+        }
+        return null;
+    }
+}
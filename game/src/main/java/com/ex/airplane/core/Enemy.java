@@ -0,0 +1,33 @@
+package com.ex.airplane.core;
+
+/**
+ * 敌机类，负责敌机的属性和移动。
+ */
+public class Enemy extends GameObject {
+    public static final int WIDTH = 50; // 敌机宽度
+    public static final int HEIGHT = 50; // 敌机高度
+    public static final int SPEED = 1; // 每帧向下移动的距离
+    private static final int BOTTOM = Rules.WORLD_HEIGHT; // 超出该位置即不存活
+
+    public Enemy(int x, int y) {
+        this.x = x; // 设置敌机初始x位置
+        this.y = y; // 设置敌机初始y位置
+        width = WIDTH; // 设置敌机宽度
+        height = HEIGHT; // 设置敌机高度
+        vy = SPEED; // 敌机向下移动
+        sprite = Sprite.ENEMY; // 敌机图片
+    }
+
+    @Override
+    public void move() {
+        y += vy; // 敌机向下移动
+        if (y > BOTTOM) setAlive(false); // 超出屏幕下边界，设置为不存活
+    }
+
+    /**
+     * 创建服务器端的敌机池，尺寸和离场规则与本类相同。
+     */
+    public static EntityPool createPool() {
+        return new EntityPool(WIDTH, HEIGHT, Integer.MIN_VALUE, BOTTOM);
+    }
+}
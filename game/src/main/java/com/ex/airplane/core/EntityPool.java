@@ -0,0 +1,194 @@
+package com.ex.airplane.core;
+
+import java.util.Arrays;
+
+/**
+ * 同一类对象（敌人、子弹或奖励）的池，服务器端代替对象列表使用。
+ * <p>
+ * 按列存放：编号、坐标、速度、所属玩家各是一个 int 数组，存活状态是一个位图，
+ * 移动、碰撞和移除都是对原始数组的紧凑循环，除扩容外不分配对象。
+ * 同一类对象的尺寸和离场边界都相同，只存一份。
+ * <p>
+ * 存活对象连续存放在 [0, size) 中，按生成顺序（即编号升序）排列，快照可以直接按编号归并。
+ * 下标会在移除死亡对象后变化，不能跨 tick 保存。
+ * <p>
+ * 非线程安全，由房间引擎在引擎锁内使用。
+ */
+public class EntityPool {
+    private final int width, height; // 对象尺寸
+    private final int minY, maxY; // 移动后 y 超出该范围的对象死亡
+
+    private int size; // 对象数（含本帧已死亡、尚未移除的对象）
+    private int[] ids = new int[64]; // 编号
+    private int[] xs = new int[64]; // x 坐标
+    private int[] ys = new int[64]; // y 坐标
+    private int[] vxs = new int[64]; // 每帧 x 方向速度
+    private int[] vys = new int[64]; // 每帧 y 方向速度
+    private int[] owners = new int[64]; // 所属玩家编号（子弹），没有时为 0
+    private long[] alive = new long[1]; // 存活位图
+    private int deadCount; // 已死亡、尚未移除的对象数
+
+    /**
+     * @param width  对象宽度
+     * @param height 对象高度
+     * @param minY   移动后 y 小于该值的对象死亡
+     * @param maxY   移动后 y 大于该值的对象死亡
+     */
+    public EntityPool(int width, int height, int minY, int maxY) {
+        this.width = width;
+        this.height = height;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    /**
+     * 生成一个存活的对象，放在末尾。编号应大于池中已有的编号（通常取 {@link GameObject#nextId()}）。
+     *
+     * @param owner 所属玩家编号，没有时为 0
+     */
+    public void spawn(int id, int x, int y, int vx, int vy, int owner) {
+        if (size == ids.length) {
+            grow();
+        }
+
+        int index = size++;
+        ids[index] = id;
+        xs[index] = x;
+        ys[index] = y;
+        vxs[index] = vx;
+        vys[index] = vy;
+        owners[index] = owner;
+        alive[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * 按速度移动所有对象，y 超出边界的对象标记为死亡（与 {@link Enemy#move()} 等规则相同）。
+     */
+    public void move() {
+        int[] xs = this.xs, ys = this.ys, vxs = this.vxs, vys = this.vys;
+        for (int i = 0; i < size; i++) {
+            xs[i] += vxs[i];
+            int y = ys[i] += vys[i];
+            if (y < minY || y > maxY) {
+                kill(i);
+            }
+        }
+    }
+
+    /**
+     * 一次遍历移除所有死亡对象，存活对象依次前移、保持编号顺序。
+     *
+     * @return 移除的对象数
+     */
+    public int removeDead() {
+        if (deadCount == 0) {
+            return 0;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((alive[i >>> 6] & (1L << i)) == 0) {
+                continue;
+            }
+            if (kept != i) {
+                ids[kept] = ids[i];
+                xs[kept] = xs[i];
+                ys[kept] = ys[i];
+                vxs[kept] = vxs[i];
+                vys[kept] = vys[i];
+                owners[kept] = owners[i];
+            }
+            kept++;
+        }
+
+        int removed = size - kept;
+        size = kept;
+        deadCount = 0;
+        // 剩下的对象都存活：前 kept 位置 1，其余清零
+        int fullWords = kept >>> 6;
+        Arrays.fill(alive, 0, fullWords, -1L);
+        Arrays.fill(alive, fullWords, alive.length, 0L);
+        if ((kept & 63) != 0) {
+            alive[fullWords] = (1L << kept) - 1;
+        }
+        return removed;
+    }
+
+    /**
+     * 清空池。
+     */
+    public void clear() {
+        Arrays.fill(alive, 0L);
+        size = 0;
+        deadCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int id(int i) {
+        return ids[i];
+    }
+
+    public int x(int i) {
+        return xs[i];
+    }
+
+    public int y(int i) {
+        return ys[i];
+    }
+
+    public int vx(int i) {
+        return vxs[i];
+    }
+
+    public int vy(int i) {
+        return vys[i];
+    }
+
+    public int owner(int i) {
+        return owners[i];
+    }
+
+    public boolean isAlive(int i) {
+        return (alive[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * 标记第 i 个对象死亡，在下一次 {@link #removeDead()} 时移除。
+     */
+    public void kill(int i) {
+        long bit = 1L << i;
+        if ((alive[i >>> 6] & bit) != 0) {
+            alive[i >>> 6] &= ~bit;
+            deadCount++;
+        }
+    }
+
+    /**
+     * 第 i 个对象的包围盒是否与指定矩形相交，语义同 {@link GameObject#intersects(int, int, int, int, int, int, int, int)}。
+     */
+    public boolean intersects(int i, int x, int y, int width, int height) {
+        return GameObject.intersects(xs[i], ys[i], this.width, this.height, x, y, width, height);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        vxs = Arrays.copyOf(vxs, capacity);
+        vys = Arrays.copyOf(vys, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        alive = Arrays.copyOf(alive, (capacity + 63) >>> 6);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ex.airplane.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 游戏对象的抽象类，提供基本属性和方法。
+ * 对象只保存位置、尺寸、速度和精灵编号，不依赖 AWT；绘制由客户端的 {@code SpriteCache} 负责。
+ */
+public abstract class GameObject {
+    private static final AtomicInteger ID_SEQUENCE = new AtomicInteger(); // 全局编号序列
+
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * 分配一个新的全局编号，服务器的对象池生成对象时使用。
+     */
+    public static int nextId() {
+        return ID_SEQUENCE.incrementAndGet();
+    }
+
+    public Sprite getSprite() {
+        return sprite;
+    }
+
+    protected int id = nextId(); // 编号，创建时分配且递增，网络协议中用来标识对象
+    protected int x, y, width, height; // 位置和尺寸
+    protected int vx, vy; // 每帧的移动速度，客户端据此推算未变化对象的位置
+    protected boolean alive = true; // 存活状态
+    protected Sprite sprite; // 精灵编号，图片由客户端的精灵缓存提供
+
+    public boolean isAlive() {
+        return alive; // 返回存活状态
+    }
+
+    public void setAlive(boolean alive) {
+        this.alive = alive; // 设置存活状态
+    }
+
+    /**
+     * 判断与另一个对象的包围盒是否相交，直接读取坐标和尺寸，不分配对象。
+     */
+    public boolean intersects(GameObject other) {
+        return intersects(x, y, width, height, other.x, other.y, other.width, other.height);
+    }
+
+    /**
+     * 两个矩形是否相交，语义与 {@code java.awt.Rectangle.intersects} 一致：
+     * 宽或高不为正的矩形不与任何矩形相交，边界相接不算相交，并按同样的方式处理整数溢出。
+     */
+    public static boolean intersects(int x1, int y1, int w1, int h1, int x2, int y2, int w2, int h2) {
+        if (w1 <= 0 || h1 <= 0 || w2 <= 0 || h2 <= 0) {
+            return false;
+        }
+        int right1 = x1 + w1, bottom1 = y1 + h1;
+        int right2 = x2 + w2, bottom2 = y2 + h2;
+        // 各项的前半部分处理溢出，后半部分为重叠判断
+        return (right2 < x2 || right2 > x1)
+                && (bottom2 < y2 || bottom2 > y1)
+                && (right1 < x1 || right1 > x2)
+                && (bottom1 < y1 || bottom1 > y2);
+    }
+
+    public abstract void move(); // 抽象移动方法
+}
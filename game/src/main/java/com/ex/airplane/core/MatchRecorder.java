@@ -0,0 +1,144 @@
+package com.ex.airplane.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 一局对战的输入记录，写入文本文件，每行一条记录，字段以分号分隔（与网络协议的文本消息相同）：
+ * <pre>
+ * REPLAY;版本;房间名;种子;敌人生成间隔;奖励生成间隔;tick 毫秒数
+ * PLAYER;编号;用户名;x;y;dx;dy;分数;是否存活      开局时的玩家
+ * ENEMY|BULLET|REWARD;x;y;vx;vy;所属玩家          开局时场上的对象
+ * JOIN;tick;编号;用户名;x;y                         以下为按 tick 排列的输入
+ * LEAVE;tick;编号
+ * PRESS;tick;编号;按键码
+ * RELEASE;tick;编号;按键码
+ * END;tick;校验和
+ * </pre>
+ * 输入的 tick 是它生效前已执行的 tick 数，回放时在执行下一个 tick 之前应用。
+ * 结合 {@link World} 的确定性，{@link MatchReplay} 可以据此逐 tick 重现整局对战。
+ * <p>
+ * 记录在房间锁内写入带缓冲的文件，单条记录只是内存拷贝；写入失败时记录日志并停止记录，不影响对战。
+ */
+public class MatchRecorder {
+    private static final Logger logger = Logger.getLogger(MatchRecorder.class.getName());
+
+    static final String MAGIC = "REPLAY"; // 文件首行的标记
+    static final int VERSION = 1; // 文件格式版本
+    private static final int BUFFER_SIZE = 64 * 1024; // 写缓冲区大小
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path file; // 记录文件
+    private Writer out; // 输出流，出错后为 null
+
+    private MatchRecorder(Path file, Writer out) {
+        this.file = file;
+        this.out = out;
+    }
+
+    /**
+     * 在目录下创建新的记录文件，写入文件头和世界的当前状态（应在 {@link World#restart(long)} 之后调用）。
+     *
+     * @param directory  记录文件所在目录，不存在时创建
+     * @param room       房间名
+     * @param seed       本局的随机数种子
+     * @param world      开局时的世界
+     * @param tickMillis 每个 tick 的毫秒数，回放时用于换算实际时长
+     * @return 记录器；无法创建文件时返回 null
+     */
+    public static MatchRecorder open(Path directory, String room, long seed, World world, int tickMillis) {
+        String name = room.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + LocalDateTime.now().format(FILE_TIME)
+                + "-" + Long.toHexString(seed) + ".replay";
+        Path file = directory.resolve(name);
+        try {
+            Files.createDirectories(directory);
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE);
+            MatchRecorder recorder = new MatchRecorder(file, out);
+            recorder.writeHeader(room, seed, world, tickMillis);
+            return recorder.out != null ? recorder : null;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot create replay file " + file + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void writeHeader(String room, long seed, World world, int tickMillis) {
+        write(MAGIC + ";" + VERSION + ";" + room + ";" + seed + ";" + world.getEnemySpawnTicks() + ";"
+                + world.getRewardSpawnTicks() + ";" + tickMillis);
+        for (Ship player : world.getPlayers()) {
+            write("PLAYER;" + player.getId() + ";" + player.getUsername() + ";" + player.getX() + ";" + player.getY() + ";"
+                    + player.getDx() + ";" + player.getDy() + ";" + player.getScore() + ";" + player.isAlive());
+        }
+        writePool("ENEMY", world.getEnemies());
+        writePool("BULLET", world.getBullets());
+        writePool("REWARD", world.getRewards());
+    }
+
+    private void writePool(String type, EntityPool pool) {
+        for (int i = 0; i < pool.size(); i++) {
+            write(type + ";" + pool.x(i) + ";" + pool.y(i) + ";" + pool.vx(i) + ";" + pool.vy(i) + ";" + pool.owner(i));
+        }
+    }
+
+    void join(long tick, Ship player) {
+        write("JOIN;" + tick + ";" + player.getId() + ";" + player.getUsername() + ";" + player.getX() + ";" + player.getY());
+    }
+
+    void leave(long tick, int playerId) {
+        write("LEAVE;" + tick + ";" + playerId);
+    }
+
+    void keyPressed(long tick, int playerId, int keyCode) {
+        write("PRESS;" + tick + ";" + playerId + ";" + keyCode);
+    }
+
+    void keyReleased(long tick, int playerId, int keyCode) {
+        write("RELEASE;" + tick + ";" + playerId + ";" + keyCode);
+    }
+
+    /**
+     * 写入结束记录并关闭文件。
+     *
+     * @param tick     结束时已执行的 tick 数
+     * @param checksum 结束时世界的校验和（{@link World#checksum()}）
+     */
+    void close(long tick, long checksum) {
+        write("END;" + tick + ";" + checksum);
+        if (out != null) {
+            try {
+                out.close();
+                logger.info("Recorded match to " + file);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Error closing replay file " + file + ": " + e.getMessage(), e);
+            }
+            out = null;
+        }
+    }
+
+    private void write(String line) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error writing replay file " + file + ", recording stopped: " + e.getMessage(), e);
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // 已经出错，忽略关闭时的异常
+            }
+            out = null;
+        }
+    }
+}
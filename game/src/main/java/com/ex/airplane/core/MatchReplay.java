@@ -0,0 +1,234 @@
+package com.ex.airplane.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * 读入 {@link MatchRecorder} 写出的一局对战记录，重建开局时的世界并按 tick 重放输入。
+ * <p>
+ * 输入在读入时解析到按 tick 排列的数组中，回放期间不再分配对象，测得的耗时只包含模拟本身。
+ * 同一份记录可以多次调用 {@link #createWorld()} 重复回放。
+ */
+public class MatchReplay {
+    private static final byte JOIN = 0, LEAVE = 1, PRESS = 2, RELEASE = 3; // 输入类型
+
+    private final String room; // 房间名
+    private final long seed; // 本局的随机数种子
+    private final int enemySpawnTicks, rewardSpawnTicks; // 生成间隔（tick）
+    private final int tickMillis; // 每个 tick 的毫秒数
+    private final String[] initialLines; // 开局状态（PLAYER、ENEMY、BULLET、REWARD 记录）
+
+    // 按 tick 排列的输入
+    private int count; // 输入数
+    private long[] ticks = new long[256]; // 生效的 tick
+    private byte[] types = new byte[256]; // 输入类型
+    private int[] playerIds = new int[256]; // 玩家编号
+    private int[] values = new int[256]; // 按键码；JOIN 时为 x
+    private int[] extras = new int[256]; // JOIN 时为 y
+    private String[] names = new String[256]; // JOIN 时为用户名
+
+    private long endTick = -1; // 结束时已执行的 tick 数，记录不完整时为 -1
+    private long endChecksum; // 结束时世界的校验和
+
+    private int cursor; // 下一个要应用的输入
+
+    private MatchReplay(String[] header, String[] initialLines) {
+        this.room = header[2];
+        this.seed = Long.parseLong(header[3]);
+        this.enemySpawnTicks = Integer.parseInt(header[4]);
+        this.rewardSpawnTicks = Integer.parseInt(header[5]);
+        this.tickMillis = Integer.parseInt(header[6]);
+        this.initialLines = initialLines;
+    }
+
+    /**
+     * 读入记录文件。
+     *
+     * @throws IOException 文件无法读取或格式不正确
+     */
+    public static MatchReplay read(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = in.readLine();
+            String[] header = line != null ? line.split(";") : new String[0];
+            if (header.length < 7 || !header[0].equals(MatchRecorder.MAGIC)) {
+                throw new IOException("Not a replay file: " + file);
+            }
+            if (Integer.parseInt(header[1]) != MatchRecorder.VERSION) {
+                throw new IOException("Unsupported replay version " + header[1] + ": " + file);
+            }
+
+            String[] initial = new String[16];
+            int initialCount = 0;
+            MatchReplay replay = null;
+            int lineNumber = 1;
+            try {
+                while ((line = in.readLine()) != null) {
+                    lineNumber++;
+                    String[] parts = line.split(";");
+                    switch (parts[0]) {
+                        case "PLAYER", "ENEMY", "BULLET", "REWARD" -> {
+                            if (replay != null) {
+                                throw new IOException("Initial state after inputs at line " + lineNumber);
+                            }
+                            if (initialCount == initial.length) {
+                                initial = Arrays.copyOf(initial, initialCount * 2);
+                            }
+                            initial[initialCount++] = line;
+                        }
+                        case "JOIN", "LEAVE", "PRESS", "RELEASE", "END" -> {
+                            if (replay == null) {
+                                replay = new MatchReplay(header, Arrays.copyOf(initial, initialCount));
+                            }
+                            replay.parseInput(parts);
+                        }
+                        default -> throw new IOException("Unknown record " + parts[0] + " at line " + lineNumber);
+                    }
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed record at line " + lineNumber + " of " + file, e);
+            }
+            return replay != null ? replay : new MatchReplay(header, Arrays.copyOf(initial, initialCount));
+        }
+    }
+
+    private void parseInput(String[] parts) {
+        long tick = Long.parseLong(parts[1]);
+        if (parts[0].equals("END")) {
+            endTick = tick;
+            endChecksum = Long.parseLong(parts[2]);
+            return;
+        }
+
+        if (count == ticks.length) {
+            int capacity = count * 2;
+            ticks = Arrays.copyOf(ticks, capacity);
+            types = Arrays.copyOf(types, capacity);
+            playerIds = Arrays.copyOf(playerIds, capacity);
+            values = Arrays.copyOf(values, capacity);
+            extras = Arrays.copyOf(extras, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        ticks[count] = tick;
+        playerIds[count] = Integer.parseInt(parts[2]);
+        switch (parts[0]) {
+            case "JOIN" -> {
+                types[count] = JOIN;
+                names[count] = parts[3];
+                values[count] = Integer.parseInt(parts[4]);
+                extras[count] = Integer.parseInt(parts[5]);
+            }
+            case "LEAVE" -> types[count] = LEAVE;
+            case "PRESS" -> {
+                types[count] = PRESS;
+                values[count] = Integer.parseInt(parts[3]);
+            }
+            default -> {
+                types[count] = RELEASE;
+                values[count] = Integer.parseInt(parts[3]);
+            }
+        }
+        count++;
+    }
+
+    /**
+     * 按记录重建开局时的世界，并把输入指针移回开头。
+     */
+    public World createWorld() {
+        World world = new World(enemySpawnTicks, rewardSpawnTicks, seed);
+        world.restart(seed);
+        for (String line : initialLines) {
+            String[] parts = line.split(";");
+            switch (parts[0]) {
+                case "PLAYER" -> {
+                    Ship player = world.addPlayer(Integer.parseInt(parts[1]), parts[2],
+                            Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+                    player.setDx(Integer.parseInt(parts[5]));
+                    player.setDy(Integer.parseInt(parts[6]));
+                    player.setScore(Integer.parseInt(parts[7]));
+                    player.setAlive(Boolean.parseBoolean(parts[8]));
+                }
+                case "ENEMY" -> spawn(world.getEnemies(), parts);
+                case "BULLET" -> spawn(world.getBullets(), parts);
+                default -> spawn(world.getRewards(), parts);
+            }
+        }
+        cursor = 0;
+        return world;
+    }
+
+    private static void spawn(EntityPool pool, String[] parts) {
+        pool.spawn(GameObject.nextId(), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]));
+    }
+
+    /**
+     * 应用生效 tick 不晚于给定 tick 的全部输入（在执行下一个 tick 之前调用）。
+     *
+     * @return 应用的输入数
+     */
+    public int applyInputs(World world, long tick) {
+        int applied = 0;
+        while (cursor < count && ticks[cursor] <= tick) {
+            int i = cursor++;
+            switch (types[i]) {
+                case JOIN -> world.addPlayer(playerIds[i], names[i], values[i], extras[i]);
+                case LEAVE -> {
+                    Ship player = world.getPlayer(playerIds[i]);
+                    if (player != null) {
+                        world.removePlayer(player);
+                    }
+                }
+                default -> {
+                    Ship player = world.getPlayer(playerIds[i]);
+                    if (player != null) {
+                        if (types[i] == PRESS) {
+                            world.keyPressed(player, values[i]);
+                        } else {
+                            world.keyReleased(player, values[i]);
+                        }
+                    }
+                }
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickMillis() {
+        return tickMillis;
+    }
+
+    public int getInputCount() {
+        return count;
+    }
+
+    /**
+     * 记录结束时已执行的 tick 数；记录不完整（服务器异常退出）时为最后一条输入的 tick。
+     */
+    public long getEndTick() {
+        return endTick >= 0 ? endTick : count > 0 ? ticks[count - 1] : 0;
+    }
+
+    /**
+     * 记录是否完整（有结束记录和校验和）。
+     */
+    public boolean isComplete() {
+        return endTick >= 0;
+    }
+
+    public long getEndChecksum() {
+        return endChecksum;
+    }
+}
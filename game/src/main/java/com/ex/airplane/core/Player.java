@@ -0,0 +1,77 @@
+package com.ex.airplane.core;
+
+import java.util.List; // 确保使用 java.util.List
+
+/**
+ * 单机模式的玩家飞机类，负责玩家飞机的属性和移动。
+ */
+public class Player extends GameObject {
+    private int dx, dy; // 移动方向
+    private boolean alive = true; // 存活状态
+
+    public void setDx(int dx) {  //控制x轴移动方向
+        this.dx = dx;
+    }
+
+    public void setDy(int dy) {  //控制Y轴移动方向
+        this.dy = dy;
+    }
+
+    public Player(int startX, int startY) {
+        x = startX; // 设置玩家初始x位置
+        y = startY; // 设置玩家初始y位置
+        width = Rules.SHIP_WIDTH; // 设置玩家宽度
+        height = Rules.SHIP_HEIGHT; // 设置玩家高度
+        sprite = Sprite.PLAYER; // 玩家图片
+    }
+
+    @Override
+    public void move() {
+        x += dx; // 根据dx更新x位置
+        y += dy; // 根据dy更新y位置
+
+        // 限制玩家在面板内移动
+        x = Rules.clampX(x, width);
+        y = Rules.clampY(y, height);
+    }
+
+    public void fire(List<Bullet> bullets) {
+        bullets.add(new Bullet(x + width / 2 - 2, y)); // 创建并添加子弹
+    }
+
+    /**
+     * 按键按下：方向键设置移动方向（下一帧生效），空格发射子弹。
+     *
+     * @param keyCode 按键码（{@link Rules} 中的 KEY_ 常量）
+     * @param bullets 子弹列表
+     */
+    public void keyPressed(int keyCode, List<Bullet> bullets) {
+        switch (keyCode) {
+            case Rules.KEY_LEFT -> dx = -Rules.MOVE_STEP;
+            case Rules.KEY_RIGHT -> dx = Rules.MOVE_STEP;
+            case Rules.KEY_UP -> dy = -Rules.MOVE_STEP;
+            case Rules.KEY_DOWN -> dy = Rules.MOVE_STEP;
+            case Rules.KEY_SPACE -> fire(bullets); // 发射子弹
+        }
+    }
+
+    /**
+     * 按键释放：停止对应方向的移动。
+     *
+     * @param keyCode 按键码
+     */
+    public void keyReleased(int keyCode) {
+        switch (keyCode) {
+            case Rules.KEY_LEFT, Rules.KEY_RIGHT -> dx = 0;
+            case Rules.KEY_UP, Rules.KEY_DOWN -> dy = 0;
+        }
+    }
+
+    public boolean isAlive() {
+        return alive;
+    }
+
+    public void setAlive(boolean alive) {
+        this.alive = alive;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ex.airplane.core;
+
+/**
+ * 奖励类，用于表示游戏中的奖励对象。
+ */
+public class Reward extends GameObject{
+    public static final int WIDTH = 20; // 奖励宽度
+    public static final int HEIGHT = 20; // 奖励高度
+    public static final int SPEED = 2; // 奖励下落的速度
+
+    public Reward(int x, int y) {
+        this.x = x;
+        this.y = y;
+        sprite = Sprite.REWARD;
+        this.width = WIDTH;
+        this.height = HEIGHT;
+        this.vy = SPEED; // 奖励下落的速度
+    }
+
+    /**
+     * 移动奖励。
+     */
+    public void move() {
+        y += vy; // 奖励下落的速度
+        if (y > Rules.WORLD_HEIGHT) {
+            alive = false; // 奖励超出屏幕下边界，标记为不可见
+        }
+    }
+
+    /**
+     * 创建服务器端的奖励池，尺寸和离场规则与本类相同。
+     */
+    public static EntityPool createPool() {
+        return new EntityPool(WIDTH, HEIGHT, Integer.MIN_VALUE, Rules.WORLD_HEIGHT);
+    }
+
+    /**
+     * 判断奖励是否与指定的对象相撞，不分配对象。
+     * @param other 游戏对象
+     * @return 是否相撞
+     */
+    public boolean isColliding(GameObject other) {
+        return intersects(x, y, WIDTH, HEIGHT, other.getX(), other.getY(), other.getWidth(), other.getHeight());
+    }
+}
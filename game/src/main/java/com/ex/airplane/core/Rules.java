@@ -0,0 +1,39 @@
+package com.ex.airplane.core;
+
+/**
+ * 游戏规则中用到的常量：世界尺寸、飞机尺寸和步长、按键码。
+ * 服务器、单机面板和多人客户端共用同一份数值，保证各处的模拟结果一致。
+ */
+public final class Rules {
+    public static final int WORLD_WIDTH = 800; // 世界宽度（与窗口面板宽度相同）
+    public static final int WORLD_HEIGHT = 600; // 世界高度（与窗口面板高度相同）
+
+    public static final int SHIP_WIDTH = 50; // 玩家飞机宽度
+    public static final int SHIP_HEIGHT = 50; // 玩家飞机高度
+    public static final int MOVE_STEP = 5; // 玩家每次移动的步长
+    public static final int SPAWN_MARGIN = 50; // 敌人和奖励生成时与右边界的距离
+
+    // 按键码，数值与 java.awt.event.KeyEvent 的虚拟键码相同，客户端直接把 KeyEvent 的键码发给服务器
+    public static final int KEY_SPACE = 0x20; // 空格，发射子弹
+    public static final int KEY_LEFT = 0x25; // 左方向键
+    public static final int KEY_UP = 0x26; // 上方向键
+    public static final int KEY_RIGHT = 0x27; // 右方向键
+    public static final int KEY_DOWN = 0x28; // 下方向键
+
+    private Rules() {
+    }
+
+    /**
+     * 把飞机的 x 坐标限制在世界内。
+     */
+    public static int clampX(int x, int width) {
+        return Math.max(0, Math.min(x, WORLD_WIDTH - width));
+    }
+
+    /**
+     * 把飞机的 y 坐标限制在世界内。
+     */
+    public static int clampY(int y, int height) {
+        return Math.max(0, Math.min(y, WORLD_HEIGHT - height));
+    }
+}
@@ -1,4 +1,4 @@
-package com.ex.airplane;
+package com.ex.airplane.core;
 
 /**
  * 分数管理类，负责游戏分数的增加和获取。
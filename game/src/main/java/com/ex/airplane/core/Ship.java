@@ -0,0 +1,119 @@
+package com.ex.airplane.core;
+
+/**
+ * 多人模式的玩家飞机：用户名、分数、移动方向和按键规则。
+ * 服务器直接使用本类；客户端的 {@code MultiPlayer} 在此基础上增加绘制，客户端预测也按同样的规则移动。
+ */
+public class Ship extends GameObject {
+    private String username;  //玩家用户名
+    private int score;  //玩家分数
+
+    private int dx, dy; // 移动方向
+    private int lastInputSeq; // 服务器最后处理的输入序号，随快照回传给客户端用于校正预测
+
+    public Ship(int startX, int startY, String username, int score, boolean alive) {
+        this.username = username;
+        this.score = score;
+        this.alive = alive;
+
+        x = startX; // 设置玩家初始x位置
+        y = startY; // 设置玩家初始y位置
+        width = Rules.SHIP_WIDTH; // 设置玩家宽度
+        height = Rules.SHIP_HEIGHT; // 设置玩家高度
+        sprite = Sprite.PLAYER; // 玩家图片
+    }
+
+    public Ship(int startX, int startY, String username, int score) {
+        this(startX, startY, username, score, true);
+    }
+
+    public void setDx(int dx) {  //控制x轴移动方向
+        this.dx = dx;
+    }
+
+    public void setDy(int dy) {  //控制Y轴移动方向
+        this.dy = dy;
+    }
+
+    public int getDx() {
+        return dx;
+    }
+
+    public int getDy() {
+        return dy;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    @Override
+    public void move() {
+        x += dx; // 根据dx更新x位置
+        y += dy; // 根据dy更新y位置
+
+        // 限制玩家在世界内移动
+        x = Rules.clampX(x, width);
+        y = Rules.clampY(y, height);
+    }
+
+    /**
+     * 发射子弹的 x 坐标（机头中央）。
+     */
+    public int getMuzzleX() {
+        return x + width / 2 - 2;
+    }
+
+    /**
+     * 按键按下的处理规则，服务器和客户端预测共用，保证两边的移动结果一致。
+     *
+     * 发射子弹由调用方处理（服务器放入子弹池，客户端预测时忽略）。
+     *
+     * @param keyCode 按键码（{@link Rules} 中的 KEY_ 常量）
+     * @return 是否要求发射子弹
+     */
+    public boolean keyPressed(int keyCode) {
+        switch (keyCode) {
+            case Rules.KEY_LEFT  -> {dx = -Rules.MOVE_STEP; move();}
+            case Rules.KEY_RIGHT -> {dx =  Rules.MOVE_STEP; move();}
+            case Rules.KEY_UP    -> {dy = -Rules.MOVE_STEP; move();}
+            case Rules.KEY_DOWN  -> {dy =  Rules.MOVE_STEP; move();}
+            case Rules.KEY_SPACE -> {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按键释放的处理规则。
+     *
+     * @param keyCode 按键码
+     */
+    public void keyReleased(int keyCode) {
+        switch (keyCode) {
+            case Rules.KEY_LEFT, Rules.KEY_RIGHT -> dx = 0;
+            case Rules.KEY_UP,   Rules.KEY_DOWN  -> dy = 0;
+        }
+    }
+
+    public int getLastInputSeq() {
+        return lastInputSeq;
+    }
+
+    public void setLastInputSeq(int lastInputSeq) {
+        this.lastInputSeq = lastInputSeq;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ex.airplane.core;
+
+import java.util.Arrays;
+
+/**
+ * 均匀网格，碰撞检测的粗筛阶段。
+ * <p>
+ * 每帧用 {@link #build(EntityPool)} 把池中的对象按包围盒放入覆盖的格子（对象可占多个格子），
+ * 再用 {@link #query(int, int, int, int)} 取出与某个矩形可能相交的对象在池中的下标，只对这些候选做精确检测。
+ * 格子按计数排序的方式存放在连续数组中，重建和查询都不分配对象；一个实例只能被一个线程使用。
+ * <p>
+ * 场地外的对象归入边缘的格子，坐标到格子的映射是单调的，因此相交的两个对象总会落入同一格子。
+ */
+public class SpatialGrid {
+    private final int cellSize; // 格子边长
+    private final int columns, rows; // 格子列数、行数
+    private final int[] cellStart; // 每个格子在 items 中的起始位置（计数排序的前缀和）
+    private int[] items = new int[256]; // 按格子排列的对象下标
+    private int[] seen = new int[64]; // 每个对象最近一次被查询命中的标记，用于去重
+    private int stamp; // 当前查询的标记
+    private int[] result = new int[64]; // 查询结果
+    private int objectCount; // 已放入的对象数
+
+    /**
+     * @param width    场地宽度
+     * @param height   场地高度
+     * @param cellSize 格子边长，取与最大对象相近的尺寸，使每个对象只占少数格子
+     */
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cellStart = new int[columns * rows + 1];
+    }
+
+    /**
+     * 用池中的对象重建网格，之后的查询返回它们在池中的下标（池在查询期间不能移除对象）。
+     */
+    public void build(EntityPool objects) {
+        int count = objects.size();
+        int width = objects.getWidth(), height = objects.getHeight();
+        objectCount = count;
+        if (seen.length < count) {
+            seen = new int[Math.max(count, seen.length * 2)];
+            result = new int[seen.length];
+            stamp = 0;
+        }
+
+        // 第一遍：统计每个格子的对象数
+        Arrays.fill(cellStart, 0);
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            int x = objects.x(i), y = objects.y(i);
+            int c0 = column(x), c1 = column(x + width - 1);
+            int r0 = row(y), r1 = row(y + height - 1);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+            total += (c1 - c0 + 1) * (r1 - r0 + 1);
+        }
+        for (int cell = 1; cell < cellStart.length; cell++) {
+            cellStart[cell] += cellStart[cell - 1];
+        }
+        if (items.length < total) {
+            items = new int[Math.max(total, items.length * 2)];
+        }
+
+        // 第二遍：写入对象下标，写完后 cellStart 恰好后移一格，再移回来
+        for (int i = 0; i < count; i++) {
+            int x = objects.x(i), y = objects.y(i);
+            int c0 = column(x), c1 = column(x + width - 1);
+            int r0 = row(y), r1 = row(y + height - 1);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    items[cellStart[r * columns + c]++] = i;
+                }
+            }
+        }
+        System.arraycopy(cellStart, 0, cellStart, 1, cellStart.length - 1);
+        cellStart[0] = 0;
+    }
+
+    /**
+     * 查询与指定矩形所在格子重叠的对象，结果通过 {@link #get(int)} 读取，下一次查询前有效。
+     *
+     * @return 候选对象数（已去重）
+     */
+    public int query(int x, int y, int width, int height) {
+        if (objectCount == 0) {
+            return 0;
+        }
+        if (++stamp == 0) { // 标记回绕时清空，避免误判为已命中
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+
+        int found = 0;
+        int c0 = column(x), c1 = column(x + width - 1);
+        int r0 = row(y), r1 = row(y + height - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int index = items[k];
+                    if (seen[index] != stamp) {
+                        seen[index] = stamp;
+                        result[found++] = index;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 上一次查询的第 i 个候选对象的下标。
+     */
+    public int get(int i) {
+        return result[i];
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x, cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellSize)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ex.airplane.core;
+
+/**
+ * 精灵编号。游戏对象只保存编号，图片由客户端的 {@code com.ex.airplane.UI.SpriteCache} 统一加载，
+ * 因此服务器上的对象不持有任何图片。
+ */
+public enum Sprite {
+    PLAYER("/player.png", 50, 50), // 玩家飞机
+    ENEMY("/images/dj.png", 50, 50), // 敌机
+    BULLET("/bullet.png", 5, 10), // 子弹
+    REWARD("/reward.png", 20, 20); // 奖励
+
+    private final String resource; // 类路径上的图片资源
+    private final int width, height; // 绘制尺寸，图片预先缩放到这个尺寸
+
+    Sprite(String resource, int width, int height) {
+        this.resource = resource;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,303 @@
+package com.ex.airplane.core;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * 一个房间的世界：玩家、敌人、子弹、奖励以及生成计划，按 tick 推进。
+ * <p>
+ * 只包含游戏规则，不涉及网络、线程和绘制，服务器的房间引擎在自己的锁内驱动它，
+ * 基准测试和离线工具可以直接创建并推进。非线程安全，调用方负责同步。
+ * <p>
+ * 模拟是确定的：随机生成只使用按局设定种子的随机数，时钟是 tick 数，
+ * 因此同样的种子、初始状态和按 tick 排列的输入总会得到同样的结果（见 {@link MatchRecorder}、{@link MatchReplay}）。
+ */
+public class World {
+    private static final int COLLISION_CELL_SIZE = 50; // 碰撞网格的格子边长，与敌机尺寸相同
+
+    private final int enemySpawnTicks; // 敌人生成间隔（tick）
+    private final int rewardSpawnTicks; // 奖励生成间隔（tick）
+
+    private final Vector<Ship> players = new Vector<>(); // 玩家列表
+    // 敌人、子弹、奖励按列存放在对象池中
+    private final EntityPool enemies = Enemy.createPool(); // 敌人池
+    private final EntityPool bullets = Bullet.createPool(); // 子弹池，所属玩家为玩家编号
+    private final EntityPool rewards = Reward.createPool(); // 奖励池
+    private final SpatialGrid grid = new SpatialGrid(Rules.WORLD_WIDTH, Rules.WORLD_HEIGHT, COLLISION_CELL_SIZE); // 碰撞检测的网格
+    private final Random random; // 生成位置的随机数，每局按种子重置
+
+    private long gameTicks; // 本局已执行的 tick 数，敌人和奖励的生成都以它为时钟
+    private MatchRecorder recorder; // 本局的输入记录，为 null 时不记录
+
+    /**
+     * @param enemySpawnTicks  敌人生成间隔（tick）
+     * @param rewardSpawnTicks 奖励生成间隔（tick）
+     * @param seed             随机数种子，每局开始时由 {@link #restart(long)} 重新设定
+     */
+    public World(int enemySpawnTicks, int rewardSpawnTicks, long seed) {
+        this.enemySpawnTicks = enemySpawnTicks;
+        this.rewardSpawnTicks = rewardSpawnTicks;
+        this.random = new Random(seed);
+    }
+
+    public int getEnemySpawnTicks() {
+        return enemySpawnTicks;
+    }
+
+    public int getRewardSpawnTicks() {
+        return rewardSpawnTicks;
+    }
+
+    /**
+     * 推进一帧：生成到期的敌人和奖励，游戏未结束时移动所有对象并处理碰撞。
+     *
+     * @return 游戏是否仍在进行（为 false 时本帧没有推进）
+     */
+    public boolean tick() {
+        spawnObjects();
+        if (isGameOver()) {
+            return false;
+        }
+        step();
+        return true;
+    }
+
+    /**
+     * tick 的第一阶段：计时加一，生成到期的敌人和奖励。
+     */
+    public void spawnObjects() {
+        gameTicks++;
+        if (gameTicks % enemySpawnTicks == 0) {
+            spawnEnemy();
+        }
+        if (gameTicks % rewardSpawnTicks == 0) {
+            spawnReward();
+        }
+    }
+
+    /**
+     * 推进一帧模拟：移动所有对象、处理碰撞、移除死亡对象（不含生成）。
+     * 各阶段也可以单独调用，供基准测试分别测量。
+     */
+    public void step() {
+        moveObjects();
+        handleCollisions();
+        removeDeadObjects(); // 移除死亡的敌人、子弹和奖励
+    }
+
+    public void moveObjects() {
+        enemies.move(); // 移动所有敌人
+        bullets.move(); // 移动所有子弹
+        rewards.move(); // 移动所有奖励
+    }
+
+    public void handleCollisions() {
+        CollisionHandler.handleCollisions(players, enemies, bullets, rewards, grid); // 处理碰撞
+    }
+
+    /**
+     * 移除死亡的敌人、子弹和奖励。
+     */
+    public void removeDeadObjects() {
+        enemies.removeDead(); // 移除死亡的敌人
+        bullets.removeDead(); // 移除消失的子弹
+        rewards.removeDead(); // 移除消失的奖励
+    }
+
+    /**
+     * 开始新的一局：生成计划从头计时，与原 Swing Timer 一样，首个敌人在一个间隔后出现。
+     *
+     * @param seed 本局的随机数种子
+     */
+    public void restart(long seed) {
+        gameTicks = 0;
+        random.setSeed(seed);
+    }
+
+    /**
+     * 开始记录本局的输入，之后的加入、离开和按键都按当前 tick 写入记录。
+     */
+    public void startRecording(MatchRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * 结束记录：写入结束 tick 和当前状态的校验和并关闭文件。没有在记录时什么也不做。
+     */
+    public void stopRecording() {
+        if (recorder != null) {
+            recorder.close(gameTicks, checksum());
+            recorder = null;
+        }
+    }
+
+    /**
+     * 当前状态的校验和，覆盖玩家的编号、位置、分数和存活状态以及所有对象的位置和速度（不含随生成顺序变化的对象编号）。
+     * 回放结束时与记录中的值比较，判断回放是否与原对局一致。
+     */
+    public long checksum() {
+        long hash = gameTicks;
+        for (Ship player : players) {
+            hash = 31 * hash + player.getId();
+            hash = 31 * hash + player.getX();
+            hash = 31 * hash + player.getY();
+            hash = 31 * hash + player.getScore();
+            hash = 31 * hash + (player.isAlive() ? 1 : 0);
+        }
+        hash = checksum(hash, enemies);
+        hash = checksum(hash, bullets);
+        return checksum(hash, rewards);
+    }
+
+    private static long checksum(long hash, EntityPool pool) {
+        hash = 31 * hash + pool.size();
+        for (int i = 0; i < pool.size(); i++) {
+            hash = 31 * hash + pool.x(i);
+            hash = 31 * hash + pool.y(i);
+            hash = 31 * hash + pool.vx(i);
+            hash = 31 * hash + pool.vy(i);
+            hash = 31 * hash + pool.owner(i);
+        }
+        return hash;
+    }
+
+    /**
+     * 清空玩家和所有对象。
+     */
+    public void clear() {
+        players.clear();
+        enemies.clear();
+        bullets.clear();
+        rewards.clear();
+    }
+
+    /**
+     * 没有存活的玩家（包括没有玩家）时游戏结束。
+     */
+    public boolean isGameOver() {
+        for (Ship player : players) {
+            if (player.isAlive()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 生成敌人，随机位置。
+     */
+    private void spawnEnemy() {
+        if (!isGameOver()) {
+            enemies.spawn(GameObject.nextId(), random.nextInt(Rules.WORLD_WIDTH - Rules.SPAWN_MARGIN), 0, 0, Enemy.SPEED, 0); // 随机生成敌人位置
+        }
+    }
+
+    /**
+     * 生成奖励，随机位置。
+     */
+    private void spawnReward() {
+        if (!isGameOver()) {
+            rewards.spawn(GameObject.nextId(), random.nextInt(Rules.WORLD_WIDTH - Rules.SPAWN_MARGIN), 0, 0, Reward.SPEED, 0); // 随机生成奖励位置
+        }
+    }
+
+    /**
+     * 加入一名玩家。
+     *
+     * @param id 玩家编号，快照中按编号引用玩家
+     */
+    public Ship addPlayer(int id, String username, int x, int y) {
+        Ship player = new Ship(x, y, username, 0);
+        player.setId(id);
+        players.add(player);
+        if (recorder != null) {
+            recorder.join(gameTicks, player);
+        }
+        return player;
+    }
+
+    public void removePlayer(Ship player) {
+        if (players.remove(player) && recorder != null) {
+            recorder.leave(gameTicks, player.getId());
+        }
+    }
+
+    public Ship getPlayer(int id) {
+        for (Ship player : players) {
+            if (player.getId() == id) {
+                return player;
+            }
+        }
+
+        return null;
+    }
+
+    public Ship getPlayer(String username) {
+        for (Ship player : players) {
+            if (player.getUsername().equals(username)) {
+                return player;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 处理玩家按键按下，按空格时在机头生成子弹。
+     */
+    public void keyPressed(Ship player, int keyCode) {
+        if (!players.contains(player)) {
+            return; // 已离开房间的玩家（连接线程可能仍持有它）
+        }
+        if (recorder != null) {
+            recorder.keyPressed(gameTicks, player.getId(), keyCode);
+        }
+        if (player.isAlive() && player.keyPressed(keyCode)) { // 处理玩家按键事件
+            bullets.spawn(GameObject.nextId(), player.getMuzzleX(), player.getY(), 0, Bullet.SPEED, player.getId()); // 发射子弹
+        }
+    }
+
+    /**
+     * 处理玩家按键释放。
+     */
+    public void keyReleased(Ship player, int keyCode) {
+        if (!players.contains(player)) {
+            return; // 已离开房间的玩家（连接线程可能仍持有它）
+        }
+        if (recorder != null) {
+            recorder.keyReleased(gameTicks, player.getId(), keyCode);
+        }
+        if (player.isAlive()) {
+            player.keyReleased(keyCode); // 处理玩家按键释放事件
+        }
+    }
+
+    /**
+     * 玩家列表，按加入顺序排列，调用方只读。
+     */
+    public List<Ship> getPlayers() {
+        return players;
+    }
+
+    public EntityPool getEnemies() {
+        return enemies;
+    }
+
+    public EntityPool getBullets() {
+        return bullets;
+    }
+
+    public EntityPool getRewards() {
+        return rewards;
+    }
+
+    public int getEntityCount() {
+        return enemies.size() + bullets.size() + rewards.size();
+    }
+
+    public long getGameTicks() {
+        return gameTicks;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ex.airplane.export;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 导出文件的格式。
+ */
+public enum ExportFormat {
+    XLSX("xlsx"), // Excel 工作簿（流式写出）
+    CSV("csv"); // 逗号分隔文本，最快、不需要 POI
+
+    private final String extension; // 文件扩展名（不含点）
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 按文件扩展名判断格式，无法识别时为 XLSX。
+     */
+    public static ExportFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith("." + CSV.extension) ? CSV : XLSX;
+    }
+}
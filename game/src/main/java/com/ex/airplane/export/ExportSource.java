@@ -0,0 +1,69 @@
+package com.ex.airplane.export;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 要导出的一张表：列名加上逐行读取的数据。
+ * <p>
+ * 数据按需一行一行取出，来源可以是内存中的列表，也可以是数据库游标，导出时不需要把整张表放进内存。
+ */
+public interface ExportSource extends AutoCloseable {
+    /**
+     * 工作表名称（CSV 不使用）。
+     */
+    String getTitle();
+
+    String[] getColumns();
+
+    /**
+     * 预计的行数，用于显示进度；未知时返回 -1。
+     */
+    long estimateRows();
+
+    /**
+     * 把下一行的各列写入 row（长度与列数相同，值为 String 或 Number）。
+     *
+     * @return 没有更多数据时返回 false
+     * @throws IOException 读取数据失败
+     */
+    boolean next(Object[] row) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * 内存中已有的若干行。
+     */
+    static ExportSource of(String title, String[] columns, List<Object[]> rows) {
+        Iterator<Object[]> iterator = rows.iterator();
+        return new ExportSource() {
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String[] getColumns() {
+                return columns;
+            }
+
+            @Override
+            public long estimateRows() {
+                return rows.size();
+            }
+
+            @Override
+            public boolean next(Object[] row) {
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                Object[] values = iterator.next();
+                System.arraycopy(values, 0, row, 0, row.length);
+                return true;
+            }
+        };
+    }
+}
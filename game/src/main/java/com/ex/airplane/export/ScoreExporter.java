@@ -0,0 +1,117 @@
+package com.ex.airplane.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 成绩和对局历史的导出服务：从 {@link ExportSource} 逐行读取，流式写成 XLSX 或 CSV 文件。
+ * <p>
+ * 先写到同一目录下的 .part 文件，完成后再改名为目标文件，取消或失败时删除它，不会留下写了一半的文件。
+ * 导出在调用线程上同步执行，界面上应放到后台线程（见 {@code UI.ExportWorker}）。
+ * <p>
+ * 默认输出目录由系统属性 {@code game.exportDir} 指定，未指定时为用户主目录下的 GameScores。
+ */
+public final class ScoreExporter {
+    private static final int PROGRESS_INTERVAL = 1024; // 每写出多少行报告一次进度并检查是否取消
+
+    /**
+     * 导出进度的接收方。
+     */
+    public interface Progress {
+        /**
+         * 已写出 rows 行（不含表头），total 为预计总行数，未知时为 -1。
+         */
+        void rowsWritten(long rows, long total);
+
+        /**
+         * 是否已请求取消。
+         */
+        boolean isCancelled();
+    }
+
+    private ScoreExporter() {
+    }
+
+    /**
+     * 默认的导出目录。
+     */
+    public static Path defaultDirectory() {
+        String dir = System.getProperty("game.exportDir");
+        return dir != null && !dir.isEmpty() ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), "GameScores");
+    }
+
+    /**
+     * 导出到文件，格式由扩展名决定（.csv 为 CSV，其他为 XLSX），目录不存在时创建。
+     *
+     * @param progress 进度接收方，可以为 null
+     * @return 写出的数据行数
+     * @throws IOException           读取数据或写文件失败
+     * @throws CancellationException 导出被取消
+     */
+    public static long export(ExportSource source, Path file, Progress progress) throws IOException {
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".part"); // 普通文件权限，不用 createTempFile 的仅本人可读
+        boolean done = false;
+        try (source) {
+            long rows;
+            try (OutputStream out = Files.newOutputStream(temp);
+                 TableWriter writer = open(ExportFormat.forFile(target), out, source.getTitle())) {
+                rows = copy(source, writer, progress);
+                writer.finish();
+            }
+            move(temp, target);
+            done = true;
+            return rows;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * XLSX 的写出类只在这里按需创建，导出 CSV 时不会加载 POI。
+     */
+    private static TableWriter open(ExportFormat format, OutputStream out, String title) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvTableWriter(out);
+            case XLSX -> new XlsxTableWriter(out, title);
+        };
+    }
+
+    private static long copy(ExportSource source, TableWriter writer, Progress progress) throws IOException {
+        writer.writeRow(source.getColumns());
+        long total = source.estimateRows();
+        Object[] row = new Object[source.getColumns().length];
+        long rows = 0;
+        while (source.next(row)) {
+            writer.writeRow(row);
+            rows++;
+            if (progress != null && rows % PROGRESS_INTERVAL == 0) {
+                if (progress.isCancelled()) {
+                    throw new CancellationException("Export cancelled after " + rows + " rows");
+                }
+                progress.rowsWritten(rows, total);
+            }
+        }
+        if (progress != null) {
+            progress.rowsWritten(rows, total);
+        }
+        return rows;
+    }
+
+    private static void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
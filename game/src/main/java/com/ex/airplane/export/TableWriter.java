@@ -0,0 +1,16 @@
+package com.ex.airplane.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 按行写出一张表。close 释放资源，不保证写完；只有 {@link #finish()} 成功后文件才完整。
+ */
+interface TableWriter extends Closeable {
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * 写完剩余内容。
+     */
+    void finish() throws IOException;
+}
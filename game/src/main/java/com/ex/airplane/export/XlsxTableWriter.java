@@ -0,0 +1,56 @@
+package com.ex.airplane.export;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * XLSX 格式，使用 POI 的流式工作簿 {@link SXSSFWorkbook}：内存中最多保留 {@link #ROW_WINDOW} 行，
+ * 更早的行写入压缩的临时文件，{@link #finish()} 时再拼成最终文件，因此导出几十万行也只占几 MB 堆内存。
+ * <p>
+ * 只有本类引用 POI，POI 的类在第一次导出 XLSX 时才加载。
+ */
+class XlsxTableWriter implements TableWriter {
+    static final int ROW_WINDOW = 100; // 内存中保留的行数
+
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW); // 流式工作簿
+    private final Sheet sheet; // 工作表
+    private final OutputStream out; // 目标文件
+    private int rowNum; // 下一行的行号
+
+    XlsxTableWriter(OutputStream out, String title) {
+        this.out = out;
+        workbook.setCompressTempFiles(true); // 临时文件压缩后只有原来的几分之一
+        sheet = workbook.createSheet(title);
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        Row row = sheet.createRow(rowNum++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value instanceof Number) {
+                row.createCell(i).setCellValue(((Number) value).doubleValue());
+            } else if (value != null) {
+                row.createCell(i).setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (out) {
+            workbook.close();
+        } finally {
+            workbook.dispose(); // 删除临时文件
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ex.airplane.multiplayer;
+
+import com.ex.airplane.core.Ship;
+
+import java.util.Arrays;
+
+/**
+ * 本地玩家的客户端预测。
+ * <p>
+ * 每个按键先按与服务器相同的规则（{@link Ship#keyPressed(int)}）应用到本地飞机上，
+ * 同时带着递增的序号发给服务器并保留在待确认列表中。服务器在快照中回传它最后处理的序号，
+ * 客户端据此丢弃已确认的输入，把飞机重置到服务器给出的位置，再重放尚未确认的输入，
+ * 因此本地飞机立即响应按键，而位置始终以服务器为准。
+ * <p>
+ * 非线程安全，调用方负责同步。
+ */
+public class PlayerPrediction {
+    private final Ship confirmed; // 服务器确认的状态（位置以快照为准，移动方向由已确认的输入推出）
+    private final Ship predicted; // 应用了未确认输入后的预测状态
+    private int nextSeq = 1; // 下一个输入序号
+    private int[] seqs = new int[64]; // 待确认输入的序号
+    private int[] keyCodes = new int[64]; // 待确认输入的按键码
+    private boolean[] pressed = new boolean[64]; // 待确认输入是按下还是释放
+    private int pending; // 待确认输入数
+    private boolean synced; // 是否已收到过服务器状态
+
+    public PlayerPrediction(String username) {
+        confirmed = new Ship(0, 0, username, 0);
+        predicted = new Ship(0, 0, username, 0);
+    }
+
+    /**
+     * 记录并立即预测一个本地输入。
+     *
+     * @return 发给服务器的输入序号
+     */
+    public int input(int keyCode, boolean isPressed) {
+        if (pending == seqs.length) {
+            seqs = Arrays.copyOf(seqs, pending * 2);
+            keyCodes = Arrays.copyOf(keyCodes, pending * 2);
+            pressed = Arrays.copyOf(pressed, pending * 2);
+        }
+        int seq = nextSeq++;
+        seqs[pending] = seq;
+        keyCodes[pending] = keyCode;
+        pressed[pending] = isPressed;
+        pending++;
+
+        if (synced && predicted.isAlive()) {
+            apply(predicted, keyCode, isPressed);
+        }
+        return seq;
+    }
+
+    /**
+     * 用服务器的权威状态校正预测。
+     *
+     * @param x        服务器上的 x 坐标
+     * @param y        服务器上的 y 坐标
+     * @param alive    是否存活
+     * @param ackedSeq 服务器最后处理的输入序号
+     */
+    public void reconcile(int x, int y, boolean alive, int ackedSeq) {
+        // 已确认的输入只用来推出服务器上的移动方向，位置随后以快照为准
+        int acked = 0;
+        while (acked < pending && seqs[acked] <= ackedSeq) {
+            if (alive) {
+                apply(confirmed, keyCodes[acked], pressed[acked]);
+            }
+            acked++;
+        }
+        System.arraycopy(seqs, acked, seqs, 0, pending - acked);
+        System.arraycopy(keyCodes, acked, keyCodes, 0, pending - acked);
+        System.arraycopy(pressed, acked, pressed, 0, pending - acked);
+        pending -= acked;
+
+        confirmed.setX(x);
+        confirmed.setY(y);
+        confirmed.setAlive(alive);
+        synced = true;
+
+        // 从服务器状态出发重放尚未确认的输入
+        predicted.setX(x);
+        predicted.setY(y);
+        predicted.setDx(confirmed.getDx());
+        predicted.setDy(confirmed.getDy());
+        predicted.setAlive(alive);
+        if (alive) {
+            for (int i = 0; i < pending; i++) {
+                apply(predicted, keyCodes[i], pressed[i]);
+            }
+        }
+    }
+
+    private static void apply(Ship player, int keyCode, boolean isPressed) {
+        if (isPressed) {
+            player.keyPressed(keyCode); // 只预测移动，子弹以服务器为准
+        } else {
+            player.keyReleased(keyCode);
+        }
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public int getX() {
+        return predicted.getX();
+    }
+
+    public int getY() {
+        return predicted.getY();
+    }
+}
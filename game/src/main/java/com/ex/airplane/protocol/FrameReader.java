@@ -0,0 +1,82 @@
+package com.ex.airplane.protocol;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 客户端的帧读取器，从阻塞输入流中逐帧读取服务器消息。
+ * 帧内容读入复用的缓冲区，下一次 {@link #readFrame()} 之前有效。
+ */
+public class FrameReader {
+    private final DataInputStream in; // 输入流
+    private byte[] payload = new byte[4096]; // 帧内容缓冲区，按需扩容后复用
+    private ByteBuffer view = ByteBuffer.wrap(payload); // 帧内容视图
+    private byte type; // 当前帧类型
+    private int length; // 当前帧内容长度
+
+    public FrameReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+    }
+
+    /**
+     * 读取下一帧。
+     *
+     * @return 帧类型（{@link Protocol#FRAME_TEXT} 或 {@link Protocol#FRAME_SNAPSHOT}）
+     * @throws EOFException 服务器关闭连接
+     */
+    public byte readFrame() throws IOException {
+        int frameLength = in.readInt();
+        if (frameLength < 1 || frameLength > Protocol.MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length: " + frameLength);
+        }
+        type = in.readByte();
+        length = frameLength - 1;
+        if (length > payload.length) {
+            payload = new byte[Math.max(length, payload.length * 2)];
+            view = ByteBuffer.wrap(payload);
+        }
+        in.readFully(payload, 0, length);
+        view.clear().limit(length);
+        return type;
+    }
+
+    /**
+     * 读取下一个文本帧，跳过其间的快照帧。
+     */
+    public String readText() throws IOException {
+        while (readFrame() != Protocol.FRAME_TEXT) {
+            // 登录阶段不关心快照
+        }
+        return getText();
+    }
+
+    /**
+     * 当前帧的内容。
+     */
+    public ByteBuffer getPayload() {
+        return view;
+    }
+
+    /**
+     * 当前文本帧的内容。
+     */
+    public String getText() {
+        return new String(payload, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 输入流中已到达、无需阻塞即可读取的字节数。
+     */
+    public int available() throws IOException {
+        return in.available();
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+}
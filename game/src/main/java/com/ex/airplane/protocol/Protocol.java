@@ -0,0 +1,41 @@
+package com.ex.airplane.protocol;
+
+/**
+ * 服务器与客户端之间的协议常量。
+ * <p>
+ * 客户端到服务器仍是以 '\n' 结尾的文本行；服务器到客户端的每条消息都是一个帧：
+ * <pre>
+ *   [int 长度][byte 帧类型][内容...]      长度 = 帧类型 + 内容的字节数
+ * </pre>
+ * 文本帧的内容是 UTF-8 编码的控制消息（SUCCESS、NEW_USER;...、GAMEOVER; 等）；
+ * 快照帧的内容由 {@link SnapshotEncoder} 编码、{@link SnapshotDecoder} 解码。
+ * <p>
+ * 快照是相对于客户端已确认状态的增量：客户端每解码一帧快照就回复 "ACK;tick"，
+ * 服务器以最近确认的 tick 为基准编码后续快照；客户端找不到基准时回复 "RESYNC;"，服务器随即改发关键帧。
+ */
+public final class Protocol {
+    public static final byte VERSION = 3; // 快照格式版本
+
+    public static final byte FRAME_TEXT = 1; // 文本帧
+    public static final byte FRAME_SNAPSHOT = 2; // 快照帧
+
+    public static final byte TAG_PLAYER = 1; // 玩家
+    public static final byte TAG_ENEMY = 2; // 敌人
+    public static final byte TAG_BULLET = 3; // 子弹
+    public static final byte TAG_REWARD = 4; // 奖励
+
+    public static final int TICK_MILLIS = 20; // 服务器 tick 步长（毫秒），客户端据此把快照 tick 换算为时间
+
+    public static final int FRAME_HEADER_LENGTH = 5; // 长度字段 + 帧类型
+    public static final int MAX_FRAME_LENGTH = 1 << 22; // 单帧最大长度（4 MB）
+
+    private Protocol() {
+    }
+
+    /**
+     * 把坐标量化到 16 位有符号整数范围。
+     */
+    public static int quantize(int value) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+}
@@ -0,0 +1,179 @@
+package com.ex.airplane.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 快照解码器，按 {@link SnapshotEncoder} 的格式读取增量快照，并在基准状态上应用得到新的世界状态。
+ * <p>
+ * 新状态直接写入 history 中对应 tick 的槽位，与服务器一样复用数组，稳定运行时解码不分配对象；
+ * 一个实例只能被一个线程使用。
+ */
+public class SnapshotDecoder {
+    private static final WorldState EMPTY = new WorldState().reset(-1); // 关键帧的基准
+
+    private int[] despawned = new int[64]; // 本段消失对象的编号
+
+    /**
+     * 解码一帧快照内容（不含帧头），结果保存到 history 中。
+     *
+     * @param payload 快照内容
+     * @param history 客户端已收到的状态，用于查找基准并保存结果
+     * @return 新的世界状态，属于 history，槽位被后续 tick 复用前有效；
+     *         基准已不在 history 中时返回 null，调用方应请求关键帧
+     * @throws IOException 版本不符或数据不完整
+     */
+    public WorldState decode(ByteBuffer payload, SnapshotHistory history) throws IOException {
+        WorldState state = null;
+        try {
+            byte version = payload.get();
+            if (version != Protocol.VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            long tick = readVarLong(payload);
+            long baselineTick = readVarLong(payload) - 1;
+
+            WorldState base = EMPTY;
+            if (baselineTick >= 0) {
+                base = history.get(baselineTick);
+                if (base == null) {
+                    return null;
+                }
+            }
+
+            int elapsed = (int) (tick - base.getTick());
+            state = history.claim(tick);
+            if (state == base) { // 基准与新状态落在同一槽位，说明基准已过旧
+                state.reset(-1);
+                return null;
+            }
+            for (int k = 0; k < 4; k++) {
+                byte tag = payload.get();
+                if (tag < Protocol.TAG_PLAYER || tag > Protocol.TAG_REWARD) {
+                    throw new IOException("Unknown section tag: " + tag);
+                }
+                section(payload, tag, base.table(tag), state.table(tag), elapsed);
+            }
+            return state;
+        } catch (IOException | RuntimeException e) {
+            if (state != null) {
+                state.reset(-1); // 写了一半的状态不能作为基准
+            }
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            }
+            throw new IOException("Malformed snapshot: " + e, e);
+        }
+    }
+
+    private void section(ByteBuffer in, byte tag, WorldState.Table base, WorldState.Table out, int elapsed)
+            throws IOException {
+        int despawnCount = readVarInt(in);
+        if (despawnCount > base.size) {
+            throw new IOException("Snapshot does not match its baseline");
+        }
+        if (despawnCount > despawned.length) {
+            despawned = new int[Math.max(despawnCount, despawned.length * 2)];
+        }
+        int id = 0;
+        for (int k = 0; k < despawnCount; k++) {
+            id += unzigzag(readVarInt(in));
+            despawned[k] = id;
+        }
+
+        // 变化记录与基准同为编号升序，边遍历基准边读取，不需要暂存
+        int changeCount = readVarInt(in);
+        int nextChange = changeCount > 0 ? unzigzag(readVarInt(in)) : 0;
+        int changesRead = 0, d = 0;
+        for (int i = 0; i < base.size; i++) {
+            int baseId = base.ids[i];
+            if (d < despawnCount && despawned[d] == baseId) {
+                d++;
+                continue;
+            }
+            int x = base.xs[i] + base.vxs[i] * elapsed;
+            int y = base.ys[i] + base.vys[i] * elapsed;
+            int vx = base.vxs[i], vy = base.vys[i], score = base.scores[i], inputSeq = base.inputSeqs[i];
+            boolean alive = base.alive[i];
+            if (changesRead < changeCount && nextChange == baseId) {
+                int mask = in.get() & 0xFF;
+                if ((mask & SnapshotEncoder.CHANGE_X) != 0) {
+                    x += unzigzag(readVarInt(in));
+                }
+                if ((mask & SnapshotEncoder.CHANGE_Y) != 0) {
+                    y += unzigzag(readVarInt(in));
+                }
+                if ((mask & SnapshotEncoder.CHANGE_VELOCITY) != 0) {
+                    vx = unzigzag(readVarInt(in));
+                    vy = unzigzag(readVarInt(in));
+                }
+                if ((mask & SnapshotEncoder.CHANGE_SCORE) != 0) {
+                    score = unzigzag(readVarInt(in));
+                }
+                if ((mask & SnapshotEncoder.CHANGE_ALIVE) != 0) {
+                    alive = (mask & SnapshotEncoder.ALIVE) != 0;
+                }
+                if ((mask & SnapshotEncoder.CHANGE_INPUT) != 0) {
+                    inputSeq = readVarInt(in);
+                }
+                if (++changesRead < changeCount) {
+                    nextChange += unzigzag(readVarInt(in));
+                }
+            }
+            out.add(baseId, x, y, vx, vy, score, alive);
+            out.setInputSeq(out.size - 1, inputSeq);
+        }
+        if (d != despawnCount || changesRead != changeCount) {
+            throw new IOException("Snapshot does not match its baseline");
+        }
+
+        int spawnCount = readVarInt(in);
+        int x = 0, y = 0;
+        id = 0;
+        for (int k = 0; k < spawnCount; k++) {
+            id += unzigzag(readVarInt(in));
+            x += unzigzag(readVarInt(in));
+            y += unzigzag(readVarInt(in));
+            int vx = unzigzag(readVarInt(in));
+            int vy = unzigzag(readVarInt(in));
+            int score = 0, inputSeq = 0;
+            boolean alive = true;
+            if (tag == Protocol.TAG_PLAYER) {
+                score = unzigzag(readVarInt(in));
+                alive = in.get() != 0;
+                inputSeq = readVarInt(in);
+            }
+            out.add(id, x, y, vx, vy, score, alive);
+            out.setInputSeq(out.size - 1, inputSeq);
+        }
+        out.sortById(); // 新对象的编号通常都比已有对象大，排序接近线性
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarInt too long");
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarLong too long");
+    }
+}
@@ -0,0 +1,237 @@
+package com.ex.airplane.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 快照编码器，把当前世界状态相对于客户端已确认的基准状态编码为增量快照帧。
+ * <p>
+ * 快照内容：[byte 版本][varlong tick][varlong 基准 tick + 1]，基准为 0 表示关键帧（相对空世界）。
+ * 随后按玩家、敌人、子弹、奖励的顺序，每类一段：
+ * <pre>
+ *   [byte 类型标签]
+ *   [varint 消失数量] 每条：[编号差]
+ *   [varint 变化数量] 每条：[编号差][byte 字段掩码][x 偏差][y 偏差][vx][vy][分数][输入序号]（只写掩码中出现的字段）
+ *   [varint 新增数量] 每条：[编号差][x 差][y 差][vx][vy]，玩家再加 [分数][byte 存活][输入序号]
+ * </pre>
+ * 除输入序号（非负，普通 varint）外所有整数都是 zigzag varint，编号和新增对象的坐标以同一列表内上一条记录为基准做差。
+ * 未变化的对象不写入：双方都按基准位置加上速度乘以经过的 tick 推算当前位置，
+ * 只有与推算结果不同的字段才写入变化记录，x/y 写的是与推算值的偏差。
+ * 因此匀速移动的敌人、子弹和奖励在生成之后不再占用带宽，每帧大小只取决于变化量。
+ * 玩家记录带有服务器最后处理的输入序号，客户端据此校正本地预测；快照因此仍可被所有客户端共享。
+ * <p>
+ * 编码过程只在内部数组上写入，不为每个实体分配对象；一个实例只能被一个线程使用。
+ */
+public class SnapshotEncoder {
+    static final int CHANGE_X = 1; // x 与推算值不同
+    static final int CHANGE_Y = 1 << 1; // y 与推算值不同
+    static final int CHANGE_VELOCITY = 1 << 2; // 速度变化
+    static final int CHANGE_SCORE = 1 << 3; // 分数变化
+    static final int CHANGE_ALIVE = 1 << 4; // 存活状态变化
+    static final int ALIVE = 1 << 5; // 存活状态变化后的值
+    static final int CHANGE_INPUT = 1 << 6; // 最后处理的输入序号变化
+
+    private static final byte[] TAGS = {Protocol.TAG_PLAYER, Protocol.TAG_ENEMY, Protocol.TAG_BULLET, Protocol.TAG_REWARD};
+    private static final WorldState EMPTY = new WorldState().reset(-1); // 关键帧的基准
+
+    private byte[] buffer = new byte[1024]; // 编码缓冲区，按需扩容后复用
+    private int position; // 写入位置
+    private int[] despawned = new int[64]; // 本段消失对象在基准中的下标
+    private int[] changed = new int[64]; // 本段变化对象在当前状态中的下标
+    private int[] changedBase = new int[64]; // 本段变化对象在基准中的下标
+    private int[] masks = new int[64]; // 本段变化对象的字段掩码
+    private int[] spawned = new int[64]; // 本段新增对象在当前状态中的下标
+
+    /**
+     * 编码一帧增量快照。
+     *
+     * @param baseline 客户端已确认的基准状态，为 null 时编码关键帧
+     * @param current  当前状态
+     * @return 可以共享给多个连接的只读帧（包含帧头）
+     */
+    public ByteBuffer encode(WorldState baseline, WorldState current) {
+        WorldState base = baseline != null ? baseline : EMPTY;
+        long elapsed = current.getTick() - base.getTick();
+
+        position = Protocol.FRAME_HEADER_LENGTH; // 预留帧头
+        buffer[4] = Protocol.FRAME_SNAPSHOT;
+        writeByte(Protocol.VERSION);
+        writeVarLong(current.getTick());
+        writeVarLong(baseline != null ? baseline.getTick() + 1 : 0);
+
+        for (byte tag : TAGS) {
+            writeByte(tag);
+            section(tag, base.table(tag), current.table(tag), (int) elapsed);
+        }
+
+        return finish();
+    }
+
+    private void section(byte tag, WorldState.Table base, WorldState.Table current, int elapsed) {
+        int despawnCount = 0, changeCount = 0, spawnCount = 0;
+        ensureScratch(base.size + current.size);
+
+        // 两张表都按编号升序，一次归并即可得到消失、变化和新增的对象
+        int i = 0, j = 0;
+        while (i < base.size || j < current.size) {
+            if (j == current.size || (i < base.size && base.ids[i] < current.ids[j])) {
+                despawned[despawnCount++] = i++;
+            } else if (i == base.size || base.ids[i] > current.ids[j]) {
+                spawned[spawnCount++] = j++;
+            } else {
+                int mask = diff(base, i, current, j, elapsed);
+                if (mask != 0) {
+                    changed[changeCount] = j;
+                    changedBase[changeCount] = i;
+                    masks[changeCount++] = mask;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        int lastId = 0;
+        writeVarInt(despawnCount);
+        for (int k = 0; k < despawnCount; k++) {
+            int id = base.ids[despawned[k]];
+            writeVarInt(zigzag(id - lastId));
+            lastId = id;
+        }
+
+        lastId = 0;
+        writeVarInt(changeCount);
+        for (int k = 0; k < changeCount; k++) {
+            int c = changed[k], b = changedBase[k], mask = masks[k];
+            writeVarInt(zigzag(current.ids[c] - lastId));
+            lastId = current.ids[c];
+            writeByte(mask);
+            if ((mask & CHANGE_X) != 0) {
+                writeVarInt(zigzag(current.xs[c] - (base.xs[b] + base.vxs[b] * elapsed)));
+            }
+            if ((mask & CHANGE_Y) != 0) {
+                writeVarInt(zigzag(current.ys[c] - (base.ys[b] + base.vys[b] * elapsed)));
+            }
+            if ((mask & CHANGE_VELOCITY) != 0) {
+                writeVarInt(zigzag(current.vxs[c]));
+                writeVarInt(zigzag(current.vys[c]));
+            }
+            if ((mask & CHANGE_SCORE) != 0) {
+                writeVarInt(zigzag(current.scores[c]));
+            }
+            if ((mask & CHANGE_INPUT) != 0) {
+                writeVarInt(current.inputSeqs[c]);
+            }
+        }
+
+        lastId = 0;
+        int lastX = 0, lastY = 0;
+        writeVarInt(spawnCount);
+        for (int k = 0; k < spawnCount; k++) {
+            int s = spawned[k];
+            writeVarInt(zigzag(current.ids[s] - lastId));
+            writeVarInt(zigzag(current.xs[s] - lastX));
+            writeVarInt(zigzag(current.ys[s] - lastY));
+            writeVarInt(zigzag(current.vxs[s]));
+            writeVarInt(zigzag(current.vys[s]));
+            if (tag == Protocol.TAG_PLAYER) {
+                writeVarInt(zigzag(current.scores[s]));
+                writeByte(current.alive[s] ? 1 : 0);
+                writeVarInt(current.inputSeqs[s]);
+            }
+            lastId = current.ids[s];
+            lastX = current.xs[s];
+            lastY = current.ys[s];
+        }
+    }
+
+    /**
+     * 比较同一对象在基准和当前状态中的字段，返回变化掩码。
+     */
+    private static int diff(WorldState.Table base, int i, WorldState.Table current, int j, int elapsed) {
+        int mask = 0;
+        if (current.xs[j] != base.xs[i] + base.vxs[i] * elapsed) {
+            mask |= CHANGE_X;
+        }
+        if (current.ys[j] != base.ys[i] + base.vys[i] * elapsed) {
+            mask |= CHANGE_Y;
+        }
+        if (current.vxs[j] != base.vxs[i] || current.vys[j] != base.vys[i]) {
+            mask |= CHANGE_VELOCITY;
+        }
+        if (current.scores[j] != base.scores[i]) {
+            mask |= CHANGE_SCORE;
+        }
+        if (current.alive[j] != base.alive[i]) {
+            mask |= CHANGE_ALIVE | (current.alive[j] ? ALIVE : 0);
+        }
+        if (current.inputSeqs[j] != base.inputSeqs[i]) {
+            mask |= CHANGE_INPUT;
+        }
+        return mask;
+    }
+
+    private ByteBuffer finish() {
+        int length = position - 4;
+        buffer[0] = (byte) (length >>> 24);
+        buffer[1] = (byte) (length >>> 16);
+        buffer[2] = (byte) (length >>> 8);
+        buffer[3] = (byte) length;
+        // 帧会在多个连接的邮箱里排队，必须拷贝出来，编码缓冲区留给下一帧复用
+        return ByteBuffer.wrap(Arrays.copyOf(buffer, position)).asReadOnlyBuffer();
+    }
+
+    /**
+     * 把一条文本控制消息编码为文本帧。
+     */
+    public static ByteBuffer encodeText(String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(Protocol.FRAME_HEADER_LENGTH + bytes.length);
+        frame.putInt(bytes.length + 1).put(Protocol.FRAME_TEXT).put(bytes).flip();
+        return frame.asReadOnlyBuffer();
+    }
+
+    private void ensureScratch(int count) {
+        if (count > despawned.length) {
+            int capacity = Math.max(count, despawned.length * 2);
+            despawned = new int[capacity];
+            changed = new int[capacity];
+            changedBase = new int[capacity];
+            masks = new int[capacity];
+            spawned = new int[capacity];
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ex.airplane.protocol;
+
+/**
+ * 最近若干个 tick 的世界状态环形缓冲区，按 tick 查找增量快照的基准。
+ * 非线程安全。
+ */
+public class SnapshotHistory {
+    private final WorldState[] states; // 环形缓冲区
+
+    public SnapshotHistory(int capacity) {
+        states = new WorldState[capacity];
+    }
+
+    /**
+     * 查找指定 tick 的状态。
+     *
+     * @return 已被覆盖或从未保存时返回 null
+     */
+    public WorldState get(long tick) {
+        if (tick < 0) {
+            return null;
+        }
+        WorldState state = states[(int) (tick % states.length)];
+        return state != null && state.getTick() == tick ? state : null;
+    }
+
+    /**
+     * 保存一份状态，覆盖同一槽位上更早的状态。
+     */
+    public void put(WorldState state) {
+        states[(int) (state.getTick() % states.length)] = state;
+    }
+
+    /**
+     * 取出指定 tick 对应的槽位并重置，用于原地写入新状态（复用数组，避免每帧分配）。
+     */
+    public WorldState claim(long tick) {
+        int slot = (int) (tick % states.length);
+        if (states[slot] == null) {
+            states[slot] = new WorldState();
+        }
+        return states[slot].reset(tick);
+    }
+}
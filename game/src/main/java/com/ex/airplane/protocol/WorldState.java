@@ -0,0 +1,188 @@
+package com.ex.airplane.protocol;
+
+import java.util.Arrays;
+
+/**
+ * 某个 tick 的完整世界状态，按类型标签分表保存，每张表按实体编号升序排列。
+ * 服务器用它作为增量快照的基准，客户端用它保存解码后的状态。
+ */
+public final class WorldState {
+    private long tick = -1; // 所属 tick
+    private final Table[] tables = {new Table(), new Table(), new Table(), new Table()}; // 按类型标签分表
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * 清空所有表，准备写入指定 tick 的状态（数组保留复用）。
+     */
+    public WorldState reset(long tick) {
+        this.tick = tick;
+        for (Table table : tables) {
+            table.size = 0;
+        }
+        return this;
+    }
+
+    /**
+     * 把另一个状态完整复制到本实例（数组容量足够时不分配）。
+     */
+    public WorldState copyFrom(WorldState other) {
+        tick = other.tick;
+        for (int i = 0; i < tables.length; i++) {
+            tables[i].copyFrom(other.tables[i]);
+        }
+        return this;
+    }
+
+    /**
+     * 按类型标签取表（{@link Protocol#TAG_PLAYER} 等）。
+     */
+    public Table table(byte tag) {
+        return tables[tag - 1];
+    }
+
+    /**
+     * 同一类型实体的表，各字段为并列数组，下标 0..size-1 有效。
+     */
+    public static final class Table {
+        int size; // 实体数量
+        int[] ids = new int[16]; // 编号
+        int[] xs = new int[16]; // x 坐标
+        int[] ys = new int[16]; // y 坐标
+        int[] vxs = new int[16]; // 每 tick 的 x 速度
+        int[] vys = new int[16]; // 每 tick 的 y 速度
+        int[] scores = new int[16]; // 分数（仅玩家）
+        boolean[] alive = new boolean[16]; // 存活状态（仅玩家）
+        int[] inputSeqs = new int[16]; // 服务器最后处理的输入序号（仅玩家）
+
+        public int size() {
+            return size;
+        }
+
+        public int id(int i) {
+            return ids[i];
+        }
+
+        public int x(int i) {
+            return xs[i];
+        }
+
+        public int y(int i) {
+            return ys[i];
+        }
+
+        public int vx(int i) {
+            return vxs[i];
+        }
+
+        public int vy(int i) {
+            return vys[i];
+        }
+
+        public int score(int i) {
+            return scores[i];
+        }
+
+        public boolean alive(int i) {
+            return alive[i];
+        }
+
+        public int inputSeq(int i) {
+            return inputSeqs[i];
+        }
+
+        public void setInputSeq(int i, int seq) {
+            inputSeqs[i] = seq;
+        }
+
+        /**
+         * 追加一个实体。调用方应按编号升序追加，否则需要随后调用 {@link #sortById()}。
+         */
+        public void add(int id, int x, int y, int vx, int vy, int score, boolean isAlive) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            xs[size] = x;
+            ys[size] = y;
+            vxs[size] = vx;
+            vys[size] = vy;
+            scores[size] = score;
+            alive[size] = isAlive;
+            inputSeqs[size] = 0;
+            size++;
+        }
+
+        /**
+         * 按编号二分查找。
+         *
+         * @return 下标，不存在时返回负数
+         */
+        public int indexOf(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        /**
+         * 如果编号不是升序，则按编号排序（插入排序，几乎有序时接近线性）。
+         */
+        public void sortById() {
+            for (int i = 1; i < size; i++) {
+                if (ids[i - 1] <= ids[i]) {
+                    continue;
+                }
+                int id = ids[i], x = xs[i], y = ys[i], vx = vxs[i], vy = vys[i], score = scores[i];
+                boolean isAlive = alive[i];
+                int inputSeq = inputSeqs[i];
+                int j = i - 1;
+                while (j >= 0 && ids[j] > id) {
+                    ids[j + 1] = ids[j];
+                    xs[j + 1] = xs[j];
+                    ys[j + 1] = ys[j];
+                    vxs[j + 1] = vxs[j];
+                    vys[j + 1] = vys[j];
+                    scores[j + 1] = scores[j];
+                    alive[j + 1] = alive[j];
+                    inputSeqs[j + 1] = inputSeqs[j];
+                    j--;
+                }
+                ids[j + 1] = id;
+                xs[j + 1] = x;
+                ys[j + 1] = y;
+                vxs[j + 1] = vx;
+                vys[j + 1] = vy;
+                scores[j + 1] = score;
+                alive[j + 1] = isAlive;
+                inputSeqs[j + 1] = inputSeq;
+            }
+        }
+
+        private void copyFrom(Table other) {
+            while (ids.length < other.size) {
+                grow();
+            }
+            size = other.size;
+            System.arraycopy(other.ids, 0, ids, 0, size);
+            System.arraycopy(other.xs, 0, xs, 0, size);
+            System.arraycopy(other.ys, 0, ys, 0, size);
+            System.arraycopy(other.vxs, 0, vxs, 0, size);
+            System.arraycopy(other.vys, 0, vys, 0, size);
+            System.arraycopy(other.scores, 0, scores, 0, size);
+            System.arraycopy(other.alive, 0, alive, 0, size);
+            System.arraycopy(other.inputSeqs, 0, inputSeqs, 0, size);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            vxs = Arrays.copyOf(vxs, capacity);
+            vys = Arrays.copyOf(vys, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+            inputSeqs = Arrays.copyOf(inputSeqs, capacity);
+        }
+    }
+}